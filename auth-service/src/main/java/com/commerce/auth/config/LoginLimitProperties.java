@@ -0,0 +1,20 @@
+package com.commerce.auth.config;
+
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "auth.login-limit")
+@Data
+public class LoginLimitProperties {
+  private Duration window = Duration.ofMinutes(1);
+  // failed logins allowed per window before further attempts are rejected without checking the password
+  private int maxFailuresPerUsername = 10;
+  private int maxFailuresPerAddress = 100;
+  // usernames and addresses tracked per key type; beyond this the least active ones are forgotten
+  private long maxTrackedKeys = 100_000;
+}
@@ -0,0 +1,17 @@
+package com.commerce.auth.config;
+
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "auth.password-hashing")
+@Data
+public class PasswordHashingProperties {
+  // BCrypt cost factor; stored hashes with a lower cost are re-hashed on the next successful login
+  private int strength = 10;
+  private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+  // requests waiting for a hashing thread; beyond this, logins and registrations are rejected with 503
+  private int queueCapacity = 64;
+}
@@ -0,0 +1,25 @@
+package com.commerce.auth.config;
+
+
+import jakarta.validation.constraints.AssertTrue;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+@Component
+@ConfigurationProperties(prefix = "auth.revocation")
+@Validated
+@Data
+public class RevocationProperties {
+  // "local" (single instance / in-process) or "http" (peers found through service discovery)
+  private String transport = "local";
+  private String serviceId = "auth-service";
+  // sent in a request header to the peers, so it must be a secret of its own and never the JWT signing key
+  private String peerSecret;
+  
+  @AssertTrue(message = "auth.revocation.peer-secret must be set when auth.revocation.transport is http")
+  public boolean isPeerSecretSetForHttp() {
+    return !"http".equals(transport) || (peerSecret != null && !peerSecret.isBlank());
+  }
+}
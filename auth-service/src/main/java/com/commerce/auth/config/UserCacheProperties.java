@@ -0,0 +1,16 @@
+package com.commerce.auth.config;
+
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "auth.user-cache")
+@Data
+public class UserCacheProperties {
+  private long maxSize = 10_000;
+  private Duration ttl = Duration.ofMinutes(5);
+}
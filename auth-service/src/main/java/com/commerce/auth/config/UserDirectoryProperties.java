@@ -0,0 +1,14 @@
+package com.commerce.auth.config;
+
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "auth.user-directory")
+@Data
+public class UserDirectoryProperties {
+  private int defaultPageSize = 50;
+  private int maxPageSize = 500;
+}
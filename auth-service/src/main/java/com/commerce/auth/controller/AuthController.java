@@ -1,14 +1,24 @@
 package com.commerce.auth.controller;
 
+import com.commerce.auth.dtos.BulkRegistrationResultDTO;
 import com.commerce.auth.dtos.RegistrationDTO;
 import com.commerce.auth.models.UserDAO;
+import com.commerce.auth.repository.UserSummary;
+import com.commerce.auth.security.JwtAuthenticationFilter;
 import com.commerce.auth.service.TokenBlacklistService;
+import com.commerce.auth.service.TokenIntrospectionService;
 import com.commerce.auth.service.UserService;
 import com.commerce.common.config.utils.AuthenticationUtils;
 import com.commerce.common.constants.OpenAPIConstants;
 import com.commerce.common.dto.AuthResponseDTO;
+import com.commerce.common.dto.CursorPageDTO;
+import com.commerce.common.dto.IdsDTO;
 import com.commerce.common.dto.LoginRequest;
+import com.commerce.common.dto.RevocationFeedDTO;
+import com.commerce.common.dto.TokenBatchDTO;
+import com.commerce.common.dto.TokenValidationDTO;
 import com.commerce.common.dto.UserResponseDTO;
+import com.commerce.common.security.VerifiedToken;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -28,28 +38,46 @@ public class AuthController {
     private final TokenBlacklistService blacklist;
     private final UserService userService;
     private final AuthenticationUtils authUtils;
+    private final TokenIntrospectionService introspection;
 
 
     public AuthController(
             TokenBlacklistService blacklist,
             UserService userService,
-            AuthenticationUtils authUtils) {
+            AuthenticationUtils authUtils,
+            TokenIntrospectionService introspection) {
         this.blacklist = blacklist;
         this.userService = userService;
         this.authUtils = authUtils;
+        this.introspection = introspection;
     }
 
     @Operation(
             summary = "Validate token",
-            description = "Validates if the provided JWT token is valid and not blacklisted"
+            description = "Validates if the provided JWT token is valid and not blacklisted. Answers from the token's claims; with profile=true the user's profile is included"
     )
     @ApiResponse(responseCode = "200", description = "Token is valid and user data returned")
     @ApiResponse(responseCode = "401", description = "Invalid or expired token")
-    @ApiResponse(responseCode = "404", description = "User not found")
+    @ApiResponse(responseCode = "404", description = "User not found (profile only)")
     @GetMapping("/validate")
-    public ResponseEntity<UserResponseDTO> validate() {
-        Long userId = authUtils.getCurrentUserId();
-        return userService.getByUserID(userId);
+    public ResponseEntity<UserResponseDTO> validate(
+            @RequestParam(defaultValue = "false") boolean profile,
+            @RequestAttribute(JwtAuthenticationFilter.VERIFIED_TOKEN_ATTRIBUTE) VerifiedToken token) {
+        return ResponseEntity.ok(introspection.describe(token, profile));
+    }
+
+    @Operation(
+            summary = "Validate tokens in bulk",
+            description = "Checks up to 1000 tokens in one call, e.g. for gateways and batch jobs. Results are in request order"
+    )
+    @ApiResponse(responseCode = "200", description = "One result per token")
+    @ApiResponse(responseCode = "403", description = "Too many tokens in one request")
+    @PostMapping("/validate-batch")
+    public ResponseEntity<List<TokenValidationDTO>> validateBatch(
+            @RequestBody TokenBatchDTO batch,
+            @RequestParam(defaultValue = "false") boolean profile) {
+        List<String> tokens = batch.getTokens() != null ? batch.getTokens() : List.of();
+        return ResponseEntity.ok(introspection.validateAll(tokens, profile));
     }
 
     @Operation(
@@ -67,6 +95,19 @@ public class AuthController {
                 .body(userService.register(registrationDTO));
     }
 
+    @Operation(
+            summary = "Register users in bulk",
+            description = "Creates many accounts at once, e.g. for onboarding imports. Users whose username or email is taken are skipped and reported"
+    )
+    @ApiResponse(responseCode = "200", description = "Import finished, see the result for skipped users")
+    @ApiResponse(responseCode = "400", description = "Invalid request body (validation errors)")
+    @ApiResponse(responseCode = "403", description = "Too many users in one request")
+    @SecurityRequirement(name = OpenAPIConstants.BEARER_SECURITY_SCHEME)
+    @PostMapping("/register/bulk")
+    public ResponseEntity<BulkRegistrationResultDTO> registerAll(@RequestBody List<@Valid RegistrationDTO> registrations) {
+        return ResponseEntity.ok(userService.registerAll(registrations, authUtils.getCurrentUserId()));
+    }
+
     @Operation(
             summary = "User login",
             description = "Authenticates user credentials and returns JWT token"
@@ -76,23 +117,38 @@ public class AuthController {
     @ApiResponse(responseCode = "401", description = "Invalid credentials")
     @ApiResponse(responseCode = "403", description = "Invalid login data format")
     @ApiResponse(responseCode = "404", description = "User not found")
+    @ApiResponse(responseCode = "429", description = "Too many failed attempts for this user or address")
     @PostMapping("/login")
-    public ResponseEntity<AuthResponseDTO> login(@RequestBody @Valid LoginRequest req) {
-        AuthResponseDTO response = userService.login(req);
+    public ResponseEntity<AuthResponseDTO> login(@RequestBody @Valid LoginRequest req, HttpServletRequest request) {
+        AuthResponseDTO response = userService.login(req, request.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
 
     @Operation(
-            summary = "Get all users",
-            description = "Retrieves a list of all users (requires admin privileges)"
+            summary = "List users",
+            description = "Retrieves users page by page, ordered by id. Pass the returned nextCursor to get the following page"
     )
-    @ApiResponse(responseCode = "200", description = "List of users retrieved successfully")
+    @ApiResponse(responseCode = "200", description = "Page of users retrieved successfully")
     @ApiResponse(responseCode = "401", description = "Unauthorized")
-    @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions")
+    @ApiResponse(responseCode = "403", description = "Invalid cursor or page size")
     @GetMapping("")
-    public ResponseEntity<List<UserDAO>> getAll() {
-        List<UserDAO> users = userService.getUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<CursorPageDTO<UserSummary>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(userService.getUsers(cursor, size));
+    }
+
+    @Operation(
+            summary = "Get users by id",
+            description = "Public profiles of up to 1000 users in one call; ids that do not exist are left out"
+    )
+    @ApiResponse(responseCode = "200", description = "Users retrieved successfully")
+    @ApiResponse(responseCode = "401", description = "Unauthorized")
+    @ApiResponse(responseCode = "403", description = "Too many ids")
+    @SecurityRequirement(name = OpenAPIConstants.BEARER_SECURITY_SCHEME)
+    @PostMapping("/users/by-ids")
+    public ResponseEntity<List<UserResponseDTO>> getByIds(@RequestBody IdsDTO ids) {
+        return ResponseEntity.ok(userService.getByIds(ids.getIds()));
     }
 
     @GetMapping("/by-username/{username}")
@@ -122,5 +178,30 @@ public class AuthController {
         }
         return ResponseEntity.ok().build();
     }
+
+    @Operation(
+            summary = "Log out everywhere",
+            description = "Invalidates every token issued to the current user so far"
+    )
+    @ApiResponse(responseCode = "200", description = "All sessions logged out")
+    @ApiResponse(responseCode = "401", description = "Invalid or missing token")
+    @SecurityRequirement(name = OpenAPIConstants.BEARER_SECURITY_SCHEME)
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll() {
+        userService.logoutAll(authUtils.getCurrentUserId());
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(
+            summary = "Revocation feed",
+            description = "Returns tokens revoked after the given cursor, so downstream services can verify tokens locally"
+    )
+    @ApiResponse(responseCode = "200", description = "Revocations after the cursor")
+    @GetMapping("/revocations")
+    public ResponseEntity<RevocationFeedDTO> revocations(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) String source) {
+        return ResponseEntity.ok(blacklist.revokedSince(since, source));
+    }
 }
 
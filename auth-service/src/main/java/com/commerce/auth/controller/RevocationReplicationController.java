@@ -0,0 +1,35 @@
+package com.commerce.auth.controller;
+
+import com.commerce.auth.dtos.RevocationDeltaDTO;
+import com.commerce.auth.service.replication.HttpRevocationTransport;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Receives revocations replicated from other auth-service instances.
+ */
+@Hidden
+@RestController
+@RequestMapping("/api/auth/internal")
+@ConditionalOnProperty(prefix = "auth.revocation", name = "transport", havingValue = "http")
+public class RevocationReplicationController {
+
+    private final HttpRevocationTransport transport;
+
+    public RevocationReplicationController(HttpRevocationTransport transport) {
+        this.transport = transport;
+    }
+
+    @PostMapping("/revocations")
+    public ResponseEntity<Void> receive(
+            @RequestHeader(value = HttpRevocationTransport.PEER_SECRET_HEADER, required = false) String peerSecret,
+            @RequestBody RevocationDeltaDTO delta) {
+        if (!transport.deliver(peerSecret, delta)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.commerce.auth.dtos;
+
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk registration. Users whose username or email is already taken are skipped,
+ * not failed, so an import can be re-run after a partial failure.
+ */
+public record BulkRegistrationResultDTO(
+        int requested,
+        int created,
+        List<String> conflicts,
+        List<String> invalid
+) {
+}
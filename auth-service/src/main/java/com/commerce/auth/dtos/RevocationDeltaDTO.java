@@ -0,0 +1,15 @@
+package com.commerce.auth.dtos;
+
+
+import com.commerce.common.dto.RevokedTokenDTO;
+
+import java.util.List;
+
+/**
+ * Revocations made on one auth-service instance, replicated to the others.
+ */
+public record RevocationDeltaDTO(
+        String origin,
+        List<RevokedTokenDTO> revoked
+) {
+}
@@ -0,0 +1,26 @@
+package com.commerce.auth.dtos;
+
+import com.commerce.auth.models.UserDAO;
+import com.commerce.common.dto.UserResponseDTO;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * User entity/DTO mappings, generated at compile time by MapStruct into plain getter and setter calls.
+ * <p>
+ * A DTO property the entity cannot fill fails the build. The password never leaves through a DTO and
+ * is not copied in either: the caller stores its hash.
+ */
+@Mapper(componentModel = "spring", builder = @Builder(disableBuilder = true),
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface UserMapper {
+
+    UserResponseDTO toResponse(UserDAO userDAO);
+
+    @BeanMapping(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+    @Mapping(target = "password", ignore = true)
+    UserDAO toEntity(RegistrationDTO dto);
+}
@@ -3,14 +3,23 @@ package com.commerce.auth.models;
 import com.commerce.common.model.BaseEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
-@Table(name = "users")
+import java.time.Instant;
+
+@Table(name = "users", uniqueConstraints = {
+    // named so a violation can be reported as the field that clashed
+    @UniqueConstraint(name = UserDAO.USERNAME_CONSTRAINT, columnNames = "username"),
+    @UniqueConstraint(name = UserDAO.EMAIL_CONSTRAINT, columnNames = "email")
+}, indexes = @Index(name = "idx_users_token_epoch_changed_at", columnList = "token_epoch_changed_at"))
 @EqualsAndHashCode(callSuper = true)
 @SuperBuilder
 @NoArgsConstructor
@@ -18,11 +27,18 @@ import lombok.experimental.SuperBuilder;
 @Data
 @Entity
 public class UserDAO extends BaseEntity {
-  @Column(unique = true)
+  public static final String USERNAME_CONSTRAINT = "uk_users_username";
+  public static final String EMAIL_CONSTRAINT = "uk_users_email";
+  
   private String username;
   private String firstName;
   private String lastName;
-  @Column(unique = true)
   private String email;
   private String password;
+  // bumped by "log out everywhere"; tokens carry the epoch they were issued under
+  @Builder.Default
+  @Column(columnDefinition = "bigint default 0")
+  private long tokenEpoch = 0;
+  // when tokenEpoch was last bumped; the revocation is restored from it after a restart
+  private Instant tokenEpochChangedAt;
 }
\ No newline at end of file
@@ -1,13 +1,52 @@
 package com.commerce.auth.repository;
 
 import com.commerce.auth.models.UserDAO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<UserDAO, Long> {
   Optional<UserDAO> findByUsername(String username);
   
   Optional<UserDAO> findByEmail(String email);
+  
+  // keyset page: served from the primary key index, however deep the page
+  List<UserSummary> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+  
+  List<UserSummary> findByIdIn(Collection<Long> ids);
+  
+  @Modifying(clearAutomatically = true)
+  @Query("update UserDAO u set u.tokenEpoch = u.tokenEpoch + 1, u.tokenEpochChangedAt = :now where u.id = :id")
+  int incrementTokenEpoch(@Param("id") Long id, @Param("now") Instant now);
+  
+  // called from login, which runs without a transaction
+  @Transactional
+  @Modifying
+  @Query("update UserDAO u set u.password = :password where u.username = :username")
+  int updatePassword(@Param("username") String username, @Param("password") String password);
+  
+  @Query("select u.tokenEpoch from UserDAO u where u.id = :id")
+  Optional<Long> findTokenEpochById(@Param("id") Long id);
+  
+  // users who logged out everywhere after since, i.e. whose older tokens may not have expired yet
+  @Query("select u.id as id, u.tokenEpoch as tokenEpoch, u.tokenEpochChangedAt as tokenEpochChangedAt"
+      + " from UserDAO u where u.tokenEpochChangedAt > :since")
+  List<EpochChange> findEpochChangesSince(@Param("since") Instant since);
+  
+  interface EpochChange {
+    Long getId();
+    
+    long getTokenEpoch();
+    
+    Instant getTokenEpochChangedAt();
+  }
 }
 
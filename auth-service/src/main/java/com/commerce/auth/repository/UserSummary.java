@@ -0,0 +1,16 @@
+package com.commerce.auth.repository;
+
+/**
+ * Public columns of a user; queries returning it never select the password hash.
+ */
+public interface UserSummary {
+  Long getId();
+  
+  String getUsername();
+  
+  String getFirstName();
+  
+  String getLastName();
+  
+  String getEmail();
+}
@@ -1,8 +1,14 @@
 package com.commerce.auth.security;
 
+import com.commerce.auth.config.UserCacheProperties;
 import com.commerce.auth.models.UserDAO;
 import com.commerce.auth.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -13,14 +19,35 @@ import java.util.List;
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
   private final UserRepository repo;
+  // bounded, TTL-based; exported as cache.gets{cache=userDetails,result=hit|miss}
+  private final Cache<String, UserDetails> cache;
   
-  public CustomUserDetailsService(UserRepository r) {
+  public CustomUserDetailsService(UserRepository r, UserCacheProperties props, MeterRegistry meterRegistry) {
     this.repo = r;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(props.getMaxSize())
+        .expireAfterWrite(props.getTtl())
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
   }
   
   @Override
   public UserDetails loadUserByUsername(String username)
       throws UsernameNotFoundException {
+    UserDetails cached = cache.get(username, this::load);
+    // hand out a copy, so nothing done to the returned user can reach the cache
+    return User.withUserDetails(cached).build();
+  }
+  
+  /**
+   * Must be called whenever a user's username, password or authorities change.
+   */
+  public void evict(String username) {
+    cache.invalidate(username);
+  }
+  
+  private UserDetails load(String username) {
     UserDAO u = repo.findByUsername(username)
         .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     return new org.springframework.security.core.userdetails.User(
@@ -29,4 +56,4 @@ public class CustomUserDetailsService implements UserDetailsService {
         List.of(new SimpleGrantedAuthority("ROLE_USER"))
     );
   }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.commerce.auth.security;
 
 
 import com.commerce.auth.service.TokenBlacklistService;
+import com.commerce.common.security.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,6 +20,9 @@ import java.io.IOException;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+  // request attribute holding the caller's VerifiedToken once authenticated
+  public static final String VERIFIED_TOKEN_ATTRIBUTE = "com.commerce.auth.verifiedToken";
+  
   private final JwtTokenProvider jwtProvider;
   private final CustomUserDetailsService userDetailsService;
   private final TokenBlacklistService blacklist;
@@ -43,14 +47,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
       String token = header.substring(7);
       try {
-        if (!blacklist.isBlacklisted(token)) {
-          String username = jwtProvider.getUsername(token);
-          Long userId = jwtProvider.getUserId(token);
-          UserDetails user = userDetailsService.loadUserByUsername(username);
+        VerifiedToken verified = jwtProvider.verify(token);
+        if (!blacklist.isBlacklisted(token, verified)) {
+          UserDetails user = userDetailsService.loadUserByUsername(verified.username());
           UsernamePasswordAuthenticationToken auth =
-              new UsernamePasswordAuthenticationToken(userId.toString(), null, user.getAuthorities());
+              new UsernamePasswordAuthenticationToken(verified.userId().toString(), null, user.getAuthorities());
           auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
           SecurityContextHolder.getContext().setAuthentication(auth);
+          req.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, verified);
         }
       } catch (Exception ex) {
         // invalid or expired token: clear context
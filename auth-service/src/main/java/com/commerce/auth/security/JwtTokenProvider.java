@@ -2,6 +2,8 @@ package com.commerce.auth.security;
 
 import com.commerce.auth.config.JwtProperties;
 import com.commerce.auth.models.UserDAO;
+import com.commerce.common.security.JwtVerifier;
+import com.commerce.common.security.VerifiedToken;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
@@ -9,17 +11,20 @@ import org.springframework.stereotype.Component;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
   
   private final Key key;
   private final JwtProperties jwtProperties;
+  private final JwtVerifier verifier;
   
   public JwtTokenProvider(JwtProperties jwtProperties
   ) {
     this.jwtProperties = jwtProperties;
     this.key = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.ISO_8859_1));
+    this.verifier = new JwtVerifier(jwtProperties.getSecret());
   }
   
   public String createToken(UserDAO userDAO) {
@@ -27,23 +32,28 @@ public class JwtTokenProvider {
     Date expiry = new Date(now.getTime() + jwtProperties.getExpiration());
     
     return Jwts.builder()
+        .setId(UUID.randomUUID().toString())
         .setSubject(userDAO.getId().toString())
         .claim("username", userDAO.getUsername())
+        .claim("epoch", userDAO.getTokenEpoch())
         .setIssuedAt(now)
         .setExpiration(expiry)
         .signWith(key, SignatureAlgorithm.HS256)
         .compact();
   }
   
-  public Jws<Claims> validate(String token) throws JwtException {
-    return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+  /**
+   * Upper bound on how long any issued token stays valid.
+   */
+  public long getExpirationMillis() {
+    return jwtProperties.getExpiration();
   }
   
-  public String getUsername(String token) {
-    return validate(token).getBody().get("username", String.class);
-  }
-  
-  public Long getUserId(String token) {
-    return Long.valueOf(validate(token).getBody().getSubject());
+  /**
+   * Checks signature and expiry once and returns every claim the callers need,
+   * so a request never parses the same token twice.
+   */
+  public VerifiedToken verify(String token) throws JwtException {
+    return verifier.verify(token);
   }
 }
@@ -0,0 +1,76 @@
+package com.commerce.auth.security;
+
+import com.commerce.auth.config.LoginLimitProperties;
+import com.commerce.common.exception.TooManyRequestsException;
+import com.commerce.common.util.SlidingWindowCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Locale;
+
+/**
+ * Rejects logins for a username or client address that failed too often within the sliding window,
+ * before any user lookup or BCrypt comparison is paid for. Only failures are counted, so users who
+ * log in successfully are never throttled by their own traffic.
+ */
+@Component
+public class LoginAttemptLimiter {
+  private final LoginLimitProperties props;
+  private final Clock clock;
+  private final SlidingWindowCounter failuresByUsername;
+  private final SlidingWindowCounter failuresByAddress;
+  private final Counter allowed;
+  private final Counter rejectedByUsername;
+  private final Counter rejectedByAddress;
+  
+  public LoginAttemptLimiter(LoginLimitProperties props, MeterRegistry meterRegistry) {
+    this(props, meterRegistry, Clock.systemUTC());
+  }
+  
+  LoginAttemptLimiter(LoginLimitProperties props, MeterRegistry meterRegistry, Clock clock) {
+    this.props = props;
+    this.clock = clock;
+    this.failuresByUsername = new SlidingWindowCounter(props.getWindow().toMillis(), props.getMaxTrackedKeys());
+    this.failuresByAddress = new SlidingWindowCounter(props.getWindow().toMillis(), props.getMaxTrackedKeys());
+    // rejection rate: rate(auth_login_limiter_total{outcome="rejected"}) / rate(auth_login_limiter_total)
+    this.allowed = outcome(meterRegistry, "allowed", "none");
+    this.rejectedByUsername = outcome(meterRegistry, "rejected", "username");
+    this.rejectedByAddress = outcome(meterRegistry, "rejected", "address");
+  }
+  
+  public void checkAllowed(String username, String clientAddress) {
+    long now = clock.millis();
+    if (failuresByUsername.estimate(normalize(username), now) >= props.getMaxFailuresPerUsername()) {
+      rejectedByUsername.increment();
+      throw new TooManyRequestsException("Too many failed login attempts, please retry later");
+    }
+    if (clientAddress != null
+        && failuresByAddress.estimate(clientAddress, now) >= props.getMaxFailuresPerAddress()) {
+      rejectedByAddress.increment();
+      throw new TooManyRequestsException("Too many failed login attempts, please retry later");
+    }
+    allowed.increment();
+  }
+  
+  public void recordFailure(String username, String clientAddress) {
+    long now = clock.millis();
+    failuresByUsername.increment(normalize(username), now);
+    if (clientAddress != null) {
+      failuresByAddress.increment(clientAddress, now);
+    }
+  }
+  
+  private static String normalize(String username) {
+    return username == null ? "" : username.toLowerCase(Locale.ROOT);
+  }
+  
+  private static Counter outcome(MeterRegistry meterRegistry, String outcome, String reason) {
+    return Counter.builder("auth.login.limiter")
+        .description("Login attempts checked against the failure limit")
+        .tag("outcome", outcome)
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,153 @@
+package com.commerce.auth.security;
+
+import com.commerce.auth.config.PasswordHashingProperties;
+import com.commerce.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing on a small dedicated pool instead of the request threads, so a burst of
+ * logins can only use that many cores and cheap endpoints keep their CPU. When every thread is busy
+ * and the queue is full, calls fail immediately with {@link ServiceUnavailableException}
+ * rather than piling up behind each other.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder, AutoCloseable {
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor pool;
+  private final Timer encodeWait;
+  private final Timer encodeTime;
+  private final Timer matchesWait;
+  private final Timer matchesTime;
+  private final Counter rejected;
+  
+  public OffloadingPasswordEncoder(PasswordEncoder delegate, PasswordHashingProperties props,
+                                   MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    AtomicInteger threadCount = new AtomicInteger();
+    BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(props.getQueueCapacity());
+    this.pool = new ThreadPoolExecutor(props.getThreads(), props.getThreads(), 0, TimeUnit.MILLISECONDS, queue, r -> {
+      Thread t = new Thread(r, "password-hashing-" + threadCount.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    }, new ThreadPoolExecutor.AbortPolicy());
+    
+    this.encodeWait = stageTimer(meterRegistry, "auth.password.queue.wait", "encode");
+    this.encodeTime = stageTimer(meterRegistry, "auth.password.hash", "encode");
+    this.matchesWait = stageTimer(meterRegistry, "auth.password.queue.wait", "matches");
+    this.matchesTime = stageTimer(meterRegistry, "auth.password.hash", "matches");
+    Gauge.builder("auth.password.queue.size", queue, BlockingQueue::size)
+        .description("Hashing requests waiting for a thread")
+        .register(meterRegistry);
+    this.rejected = Counter.builder("auth.password.rejected")
+        .description("Hashing requests rejected because the pool was saturated")
+        .register(meterRegistry);
+  }
+  
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return await(submit(() -> delegate.encode(rawPassword), encodeWait, encodeTime));
+  }
+  
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return await(submit(() -> delegate.matches(rawPassword, encodedPassword), matchesWait, matchesTime));
+  }
+  
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    // only inspects the stored hash's prefix, not worth a hop to the pool
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+  
+  /**
+   * Hashes without blocking the caller, e.g. to hash several passwords in parallel.
+   * Rejection still happens synchronously.
+   */
+  public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+    long queuedAt = System.nanoTime();
+    try {
+      return CompletableFuture.supplyAsync(() -> {
+        encodeWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        return encodeTime.record(() -> delegate.encode(rawPassword));
+      }, pool);
+    } catch (RejectedExecutionException e) {
+      throw saturated();
+    }
+  }
+  
+  /**
+   * Hashes many passwords in parallel, in waves of at most half the queue, so a bulk caller never
+   * trips the saturation check itself and logins still find room in the queue.
+   */
+  public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+    int wave = Math.max(1, (pool.getQueue().size() + pool.getQueue().remainingCapacity()) / 2);
+    List<String> hashes = new ArrayList<>(rawPasswords.size());
+    for (int from = 0; from < rawPasswords.size(); from += wave) {
+      List<CompletableFuture<String>> pending = rawPasswords.subList(from, Math.min(from + wave, rawPasswords.size()))
+          .stream()
+          .map(this::encodeAsync)
+          .toList();
+      pending.forEach(f -> hashes.add(f.join()));
+    }
+    return hashes;
+  }
+  
+  @Override
+  public void close() {
+    pool.shutdownNow();
+  }
+  
+  private <T> Future<T> submit(Callable<T> task, Timer wait, Timer time) {
+    long queuedAt = System.nanoTime();
+    try {
+      return pool.submit(() -> {
+        wait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        return time.recordCallable(task);
+      });
+    } catch (RejectedExecutionException e) {
+      throw saturated();
+    }
+  }
+  
+  private ServiceUnavailableException saturated() {
+    rejected.increment();
+    return new ServiceUnavailableException("Too many concurrent authentication requests, please retry");
+  }
+  
+  private static <T> T await(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ServiceUnavailableException("Interrupted while hashing password");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+  
+  private static Timer stageTimer(MeterRegistry meterRegistry, String name, String operation) {
+    return Timer.builder(name)
+        .tag("operation", operation)
+        .register(meterRegistry);
+  }
+}
@@ -1,16 +1,13 @@
 package com.commerce.auth.security;
 
+import com.commerce.auth.config.PasswordHashingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.AuthenticationProvider;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -18,11 +15,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
   
   private final JwtAuthenticationFilter jwtFilter;
-  private final CustomUserDetailsService userDetailsService;
   
-  public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, CustomUserDetailsService userDetailsService) {
+  public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
     this.jwtFilter = jwtAuthenticationFilter;
-    this.userDetailsService = userDetailsService;
   }
   
   @Bean
@@ -35,29 +30,17 @@ public class SecurityConfig {
                 .requestMatchers("/favicon.ico").permitAll()
                 .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/api/auth/login", "/api/auth/register").permitAll()
+                .requestMatchers("/api/auth/revocations", "/api/auth/validate-batch").permitAll()
+                // peer-to-peer replication, authenticated by a shared secret header
+                .requestMatchers("/api/auth/internal/**").permitAll()
                 .anyRequest().authenticated()
         )
-        .authenticationProvider(daoAuthProvider())
         .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
         .build();
   }
   
-  
-  @Bean
-  public AuthenticationProvider daoAuthProvider() {
-    DaoAuthenticationProvider prov = new DaoAuthenticationProvider();
-    prov.setUserDetailsService(userDetailsService);
-    prov.setPasswordEncoder(passwordEncoder());
-    return prov;
-  }
-  
-  @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
-  }
-  
   @Bean
-  public AuthenticationManager authManager(AuthenticationConfiguration cfg) throws Exception {
-    return cfg.getAuthenticationManager();
+  public OffloadingPasswordEncoder passwordEncoder(PasswordHashingProperties props, MeterRegistry meterRegistry) {
+    return new OffloadingPasswordEncoder(new BCryptPasswordEncoder(props.getStrength()), props, meterRegistry);
   }
 }
@@ -1,19 +1,242 @@
 package com.commerce.auth.service;
 
+import com.commerce.auth.dtos.RevocationDeltaDTO;
+import com.commerce.auth.repository.UserRepository;
+import com.commerce.auth.security.JwtTokenProvider;
+import com.commerce.auth.service.replication.RevocationListener;
+import com.commerce.auth.service.replication.RevocationTransport;
+import com.commerce.common.dto.RevocationFeedDTO;
+import com.commerce.common.dto.RevokedTokenDTO;
+import com.commerce.common.security.VerifiedToken;
+import com.commerce.common.util.BloomFilter;
+import com.commerce.common.util.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
+/**
+ * Revoked tokens, keyed by jti (or a SHA-256 of the token for tokens issued without one).
+ * An entry lives exactly as long as the token it revokes: a timing wheel drops it once the
+ * token has expired, so the size is bounded by the number of logouts within one token lifetime.
+ * <p>
+ * Logging out everywhere is a single entry as well: the user's token epoch was bumped, and every
+ * token issued under a lower epoch is rejected until the last of them has expired. Those entries are
+ * restored from the users table at startup, so they survive a restart of every instance.
+ * <p>
+ * Revocations are replicated to the other auth-service instances through a {@link RevocationTransport},
+ * so a logout on one instance is honoured by all of them. Lookups go through a Bloom filter first;
+ * almost every request carries a token that was never revoked and is answered without touching the map.
+ */
 @Service
-public class TokenBlacklistService {
-  private final Set<String> blacklist = ConcurrentHashMap.newKeySet();
-  
+public class TokenBlacklistService implements RevocationListener {
+  private static final long TICK_MILLIS = 1000;
+  private static final int MIN_FILTER_CAPACITY = 1024;
+  private static final double FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+  // token key -> sequence number of its entry in the revocation feed
+  private final Map<String, Long> blacklist = new ConcurrentHashMap<>();
+  // revocation feed for downstream services, keyed by sequence number
+  private final NavigableMap<Long, RevokedTokenDTO> revocations = new ConcurrentSkipListMap<>();
+  // user id -> lowest token epoch still accepted
+  private final Map<Long, Long> minEpochs = new ConcurrentHashMap<>();
+  private final String source = UUID.randomUUID().toString();
+  private final JwtTokenProvider jwtProvider;
+  private final RevocationTransport transport;
+  private final UserRepository userRepository;
+  private final Clock clock;
+  private final TimingWheel<String> expiries;
+  private final Counter evictions;
+  private volatile BloomFilter filter = new BloomFilter(MIN_FILTER_CAPACITY, FILTER_FALSE_POSITIVE_RATE);
+  private int evictedSinceRebuild;
+  private long sequence;
+
+  public TokenBlacklistService(JwtTokenProvider jwtProvider, RevocationTransport transport,
+                               UserRepository userRepository, MeterRegistry meterRegistry) {
+    this(jwtProvider, transport, userRepository, meterRegistry, Clock.systemUTC());
+  }
+
+  TokenBlacklistService(JwtTokenProvider jwtProvider, RevocationTransport transport, UserRepository userRepository,
+                        MeterRegistry meterRegistry, Clock clock) {
+    this.jwtProvider = jwtProvider;
+    this.transport = transport;
+    this.userRepository = userRepository;
+    this.clock = clock;
+    this.expiries = new TimingWheel<>(TICK_MILLIS, clock.millis());
+    Gauge.builder("auth.blacklist.size", blacklist, Map::size)
+        .description("Revoked tokens that have not expired yet")
+        .register(meterRegistry);
+    this.evictions = Counter.builder("auth.blacklist.evictions")
+        .description("Blacklist entries dropped because their token expired")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Joins the replication group and takes over the revocations the other instances already hold, then
+   * restores the logouts everywhere whose tokens may still be valid, which no instance may hold anymore.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void joinCluster() {
+    transport.join(source, this).forEach(this::revoke);
+    Instant now = clock.instant();
+    userRepository.findEpochChangesSince(now.minusMillis(jwtProvider.getExpirationMillis()))
+        .forEach(change -> revoke(RevokedTokenDTO.builder()
+            .userId(change.getId())
+            .epoch(change.getTokenEpoch())
+            .expiresAt(change.getTokenEpochChangedAt().plusMillis(jwtProvider.getExpirationMillis()))
+            .build()));
+  }
+
   public void blacklist(String token) {
-    blacklist.add(token);
+    VerifiedToken verified = jwtProvider.verify(token);
+    RevokedTokenDTO revoked = RevokedTokenDTO.builder()
+        .tokenId(keyOf(token, verified))
+        .expiresAt(verified.expiresAt())
+        .build();
+    if (revoke(revoked)) {
+      transport.broadcast(new RevocationDeltaDTO(source, List.of(revoked)));
+    }
   }
-  
-  public boolean isBlacklisted(String token) {
-    return blacklist.contains(token);
+
+  /**
+   * Revokes every token of {@code userId} issued before its epoch was bumped to {@code epoch}.
+   */
+  public void revokeAll(Long userId, long epoch) {
+    RevokedTokenDTO revoked = RevokedTokenDTO.builder()
+        .userId(userId)
+        .epoch(epoch)
+        .expiresAt(clock.instant().plusMillis(jwtProvider.getExpirationMillis()))
+        .build();
+    if (revoke(revoked)) {
+      transport.broadcast(new RevocationDeltaDTO(source, List.of(revoked)));
+    }
+  }
+
+  public boolean isBlacklisted(String token, VerifiedToken verified) {
+    Long minEpoch = minEpochs.get(verified.userId());
+    if (minEpoch != null && verified.epoch() < minEpoch) {
+      return true;
+    }
+    String key = keyOf(token, verified);
+    return filter.mightContain(key) && blacklist.containsKey(key);
+  }
+
+  public int size() {
+    return blacklist.size();
+  }
+
+  @Override
+  public void onDelta(RevocationDeltaDTO delta) {
+    if (source.equals(delta.origin()) || delta.revoked() == null) {
+      return;
+    }
+    delta.revoked().forEach(this::revoke);
+  }
+
+  @Override
+  public List<RevokedTokenDTO> snapshot() {
+    return new ArrayList<>(revocations.values());
+  }
+
+  @Scheduled(fixedDelay = TICK_MILLIS)
+  public synchronized void evictExpired() {
+    expiries.advance(clock.millis(), key -> {
+      Long seq = blacklist.remove(key);
+      if (seq != null) {
+        RevokedTokenDTO revoked = revocations.remove(seq);
+        if (revoked != null && revoked.getUserId() != null) {
+          // a later bump for the same user has its own entry and must survive this one
+          minEpochs.remove(revoked.getUserId(), revoked.getEpoch());
+        }
+        evictions.increment();
+        evictedSinceRebuild++;
+      }
+    });
+    // a Bloom filter cannot forget; rebuild once most of its bits belong to expired entries
+    if (evictedSinceRebuild > blacklist.size()) {
+      rebuildFilter();
+    }
+  }
+
+  /**
+   * Revocations after {@code since}. A poller that last read from another source
+   * (i.e. before a restart) gets the whole feed again.
+   */
+  public RevocationFeedDTO revokedSince(long since, String pollerSource) {
+    long from = Objects.equals(source, pollerSource) ? since : 0;
+    long cursor = from;
+    List<RevokedTokenDTO> revoked = new ArrayList<>();
+    for (Map.Entry<Long, RevokedTokenDTO> e : revocations.tailMap(from, false).entrySet()) {
+      revoked.add(e.getValue());
+      cursor = e.getKey();
+    }
+    return RevocationFeedDTO.builder()
+        .source(source)
+        .cursor(cursor)
+        .revoked(revoked)
+        .build();
+  }
+
+  // sequence numbers must become visible in order, otherwise a poller could skip one
+  private synchronized boolean revoke(RevokedTokenDTO revoked) {
+    String key = keyOf(revoked);
+    if (blacklist.containsKey(key) || !expiries.schedule(key, revoked.getExpiresAt().toEpochMilli())) {
+      return false;
+    }
+    revocations.put(++sequence, revoked);
+    // the filter must see the key before the map does, or a concurrent lookup could miss it
+    filter.put(key);
+    blacklist.put(key, sequence);
+    if (revoked.getUserId() != null) {
+      minEpochs.merge(revoked.getUserId(), revoked.getEpoch(), Math::max);
+    }
+    if (blacklist.size() > filter.capacity()) {
+      rebuildFilter();
+    }
+    return true;
+  }
+
+  private void rebuildFilter() {
+    BloomFilter rebuilt = new BloomFilter(Math.max(MIN_FILTER_CAPACITY, blacklist.size() * 2),
+        FILTER_FALSE_POSITIVE_RATE);
+    blacklist.keySet().forEach(rebuilt::put);
+    filter = rebuilt;
+    evictedSinceRebuild = 0;
+  }
+
+  private static String keyOf(RevokedTokenDTO revoked) {
+    return revoked.getUserId() != null
+        ? "epoch:" + revoked.getUserId() + ":" + revoked.getEpoch()
+        : revoked.getTokenId();
+  }
+
+  private static String keyOf(String token, VerifiedToken verified) {
+    if (verified.tokenId() != null) {
+      return verified.tokenId();
+    }
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
   }
 }
@@ -0,0 +1,99 @@
+package com.commerce.auth.service;
+
+import com.commerce.auth.security.JwtTokenProvider;
+import com.commerce.common.dto.TokenValidationDTO;
+import com.commerce.common.dto.UserResponseDTO;
+import com.commerce.common.exception.ResourceNotFoundException;
+import com.commerce.common.exception.ValidationException;
+import com.commerce.common.security.VerifiedToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers "is this token valid, and whose is it" from the token itself: signature, expiry and
+ * revocation are all checked in memory, so no database access is needed unless the caller
+ * asks for the profile, which is served from {@link UserProfileCache}.
+ */
+@Service
+public class TokenIntrospectionService {
+  public static final int MAX_BATCH_SIZE = 1000;
+  
+  private final JwtTokenProvider jwtProvider;
+  private final TokenBlacklistService blacklist;
+  private final UserProfileCache profiles;
+  
+  public TokenIntrospectionService(JwtTokenProvider jwtProvider, TokenBlacklistService blacklist,
+                                   UserProfileCache profiles) {
+    this.jwtProvider = jwtProvider;
+    this.blacklist = blacklist;
+    this.profiles = profiles;
+  }
+  
+  /**
+   * The caller's own identity, from a token the authentication filter already verified.
+   */
+  public UserResponseDTO describe(VerifiedToken token, boolean profile) {
+    if (profile) {
+      return profiles.get(token.userId());
+    }
+    return UserResponseDTO.builder()
+        .id(token.userId())
+        .username(token.username())
+        .build();
+  }
+  
+  /**
+   * Checks each token independently; results are in the order of {@code tokens}.
+   */
+  public List<TokenValidationDTO> validateAll(List<String> tokens, boolean profile) {
+    if (tokens.size() > MAX_BATCH_SIZE) {
+      throw new ValidationException("At most " + MAX_BATCH_SIZE + " tokens can be validated at once");
+    }
+    List<TokenValidationDTO> results = new ArrayList<>(tokens.size());
+    for (String token : tokens) {
+      results.add(validate(token, profile));
+    }
+    return results;
+  }
+  
+  private TokenValidationDTO validate(String token, boolean profile) {
+    VerifiedToken verified;
+    try {
+      verified = jwtProvider.verify(token);
+    } catch (ExpiredJwtException e) {
+      return invalid("expired");
+    } catch (JwtException | IllegalArgumentException e) {
+      return invalid("invalid");
+    }
+    if (blacklist.isBlacklisted(token, verified)) {
+      return invalid("revoked");
+    }
+    UserResponseDTO user = null;
+    if (profile) {
+      try {
+        user = profiles.get(verified.userId());
+      } catch (ResourceNotFoundException e) {
+        // signed by us but the account is gone
+        return invalid("invalid");
+      }
+    }
+    return TokenValidationDTO.builder()
+        .valid(true)
+        .userId(verified.userId())
+        .username(verified.username())
+        .expiresAt(verified.expiresAt())
+        .user(user)
+        .build();
+  }
+  
+  private static TokenValidationDTO invalid(String reason) {
+    return TokenValidationDTO.builder()
+        .valid(false)
+        .reason(reason)
+        .build();
+  }
+}
@@ -0,0 +1,53 @@
+package com.commerce.auth.service;
+
+import com.commerce.auth.config.UserCacheProperties;
+import com.commerce.auth.dtos.UserMapper;
+import com.commerce.auth.models.UserDAO;
+import com.commerce.auth.repository.UserRepository;
+import com.commerce.common.dto.UserResponseDTO;
+import com.commerce.common.exception.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Public profiles by user id, for token validation that asks for more than the token's claims.
+ * Bounded and TTL-based like the user details cache, exported as cache.gets{cache=userProfiles}.
+ */
+@Component
+public class UserProfileCache {
+  private final UserRepository repo;
+  private final UserMapper userMapper;
+  private final Cache<Long, UserResponseDTO> cache;
+  
+  public UserProfileCache(UserRepository repo, UserMapper userMapper, UserCacheProperties props,
+                          MeterRegistry meterRegistry) {
+    this.repo = repo;
+    this.userMapper = userMapper;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(props.getMaxSize())
+        .expireAfterWrite(props.getTtl())
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "userProfiles");
+  }
+  
+  public UserResponseDTO get(Long userId) {
+    return cache.get(userId, this::load);
+  }
+  
+  /**
+   * Must be called whenever a user's profile changes, together with {@code CustomUserDetailsService.evict}.
+   */
+  public void evict(Long userId) {
+    cache.invalidate(userId);
+  }
+  
+  private UserResponseDTO load(Long userId) {
+    UserDAO user = repo.findById(userId)
+        .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+    return userMapper.toResponse(user);
+  }
+}
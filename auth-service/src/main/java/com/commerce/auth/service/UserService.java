@@ -1,8 +1,11 @@
 package com.commerce.auth.service;
 
+import com.commerce.auth.dtos.BulkRegistrationResultDTO;
 import com.commerce.auth.dtos.RegistrationDTO;
 import com.commerce.auth.models.UserDAO;
+import com.commerce.auth.repository.UserSummary;
 import com.commerce.common.dto.AuthResponseDTO;
+import com.commerce.common.dto.CursorPageDTO;
 import com.commerce.common.dto.LoginRequest;
 import com.commerce.common.dto.UserResponseDTO;
 import org.springframework.http.ResponseEntity;
@@ -10,13 +13,19 @@ import org.springframework.http.ResponseEntity;
 import java.util.List;
 
 public interface UserService {
-    AuthResponseDTO login(LoginRequest loginRequest);
+    AuthResponseDTO login(LoginRequest loginRequest, String clientAddress);
 
     UserDAO register(RegistrationDTO registrationDTO);
 
-    List<UserDAO> getUsers();
+    BulkRegistrationResultDTO registerAll(List<RegistrationDTO> registrations, Long createdBy);
+
+    CursorPageDTO<UserSummary> getUsers(String cursor, Integer size);
+
+    List<UserResponseDTO> getByIds(List<Long> ids);
 
     UserDAO findByUsername(String username);
 
     ResponseEntity<UserResponseDTO> getByUserID(Long userId);
+
+    void logoutAll(Long userId);
 }
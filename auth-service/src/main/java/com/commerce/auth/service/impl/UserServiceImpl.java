@@ -1,111 +1,155 @@
 package com.commerce.auth.service.impl;
 
+import com.commerce.auth.config.UserDirectoryProperties;
+import com.commerce.auth.dtos.BulkRegistrationResultDTO;
 import com.commerce.auth.dtos.RegistrationDTO;
+import com.commerce.auth.dtos.UserMapper;
 import com.commerce.auth.models.UserDAO;
 import com.commerce.auth.repository.UserRepository;
+import com.commerce.auth.repository.UserSummary;
+import com.commerce.auth.security.CustomUserDetailsService;
 import com.commerce.auth.security.JwtTokenProvider;
+import com.commerce.auth.security.LoginAttemptLimiter;
+import com.commerce.auth.security.OffloadingPasswordEncoder;
+import com.commerce.auth.service.TokenBlacklistService;
+import com.commerce.auth.service.UserProfileCache;
 import com.commerce.auth.service.UserService;
 import com.commerce.common.dto.AuthResponseDTO;
+import com.commerce.common.dto.CursorPageDTO;
 import com.commerce.common.dto.LoginRequest;
 import com.commerce.common.dto.UserResponseDTO;
+import com.commerce.common.exception.BadCredentialsException;
 import com.commerce.common.exception.ConflictException;
-import com.commerce.common.exception.InvalidCredentialsException;
 import com.commerce.common.exception.ResourceNotFoundException;
 import com.commerce.common.exception.ValidationException;
+import com.commerce.common.util.PageCursor;
+import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.AuthenticationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 @Slf4j
 public class UserServiceImpl implements UserService {
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final int MAX_BULK_REGISTRATIONS = 50_000;
+    // keeps the IN list within what one statement should carry
+    private static final int MAX_IDS_PER_LOOKUP = 1000;
+    // relies on the unique constraints on username and email; duplicates are skipped, not failed
+    private static final String INSERT_USER_SQL = """
+            INSERT INTO users (username, first_name, last_name, email, password, token_epoch, deleted,
+                               created_by, updated_by, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, 0, false, ?, ?, ?, ?)
+            ON CONFLICT DO NOTHING""";
+    private static final int[] INSERT_USER_TYPES = {Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP};
+
     private final UserRepository repo;
     private final PasswordEncoder encoder;
-    private final ModelMapper modelMapper;
-    private final AuthenticationManager authManager;
-    private final UserRepository userRepository;
+    private final UserMapper userMapper;
     private final JwtTokenProvider jwtProvider;
+    private final TokenBlacklistService blacklist;
+    private final LoginAttemptLimiter loginLimiter;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserProfileCache profileCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserDirectoryProperties directoryProps;
+    private volatile String unknownUserHash;
 
-    public UserServiceImpl(UserRepository repo, PasswordEncoder encoder, ModelMapper modelMapper, AuthenticationManager authManager, UserRepository userRepository, JwtTokenProvider jwtProvider) {
+    public UserServiceImpl(UserRepository repo, PasswordEncoder encoder, UserMapper userMapper, JwtTokenProvider jwtProvider, TokenBlacklistService blacklist, LoginAttemptLimiter loginLimiter, CustomUserDetailsService userDetailsService, UserProfileCache profileCache, JdbcTemplate jdbcTemplate, UserDirectoryProperties directoryProps) {
         this.repo = repo;
         this.encoder = encoder;
-        this.modelMapper = modelMapper;
-        this.authManager = authManager;
-        this.userRepository = userRepository;
+        this.userMapper = userMapper;
         this.jwtProvider = jwtProvider;
+        this.blacklist = blacklist;
+        this.loginLimiter = loginLimiter;
+        this.userDetailsService = userDetailsService;
+        this.profileCache = profileCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.directoryProps = directoryProps;
     }
 
     @Override
-    public AuthResponseDTO login(LoginRequest loginRequest) {
-        try {
-            // Attempt authentication
-            authManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getUsername(),
-                            loginRequest.getPassword()
-                    )
-            );
-
-            // If authentication succeeds, get user details
-            UserDAO userDAO = userRepository.findByUsername(loginRequest.getUsername())
-                    .orElseThrow(() -> {
-                        log.error("User not found after successful authentication: {}", loginRequest.getUsername());
-                        return new ResourceNotFoundException("User not found");
-                    });
-
-            String token = jwtProvider.createToken(userDAO);
-            return AuthResponseDTO.builder()
-                    .token(token)
-                    .user(modelMapper.map(userDAO, UserResponseDTO.class))
-                    .build();
-
-        } catch (BadCredentialsException ex) {
-            log.warn("Authentication failed for user: {}", loginRequest.getUsername());
-            throw new com.commerce.common.exception.BadCredentialsException("Invalid username or password");
-        } catch (AuthenticationException ex) {
-            log.error("Authentication error for user: {}", loginRequest.getUsername(), ex);
-            throw new InvalidCredentialsException("Authentication failed");
+    public AuthResponseDTO login(LoginRequest loginRequest, String clientAddress) {
+        // reject known-bad sources before paying for the user lookup and BCrypt
+        loginLimiter.checkAllowed(loginRequest.getUsername(), clientAddress);
+
+        // the only statement of a login: the same row is checked and then used for the token
+        Optional<UserDAO> found = repo.findByUsername(loginRequest.getUsername());
+        if (found.isEmpty()) {
+            // compare against a dummy hash anyway, so unknown usernames take as long as wrong passwords
+            encoder.matches(loginRequest.getPassword(), unknownUserHash());
+            return rejectLogin(loginRequest, clientAddress);
         }
+        UserDAO userDAO = found.get();
+        if (!encoder.matches(loginRequest.getPassword(), userDAO.getPassword())) {
+            return rejectLogin(loginRequest, clientAddress);
+        }
+        if (encoder.upgradeEncoding(userDAO.getPassword())) {
+            // the BCrypt strength was raised since this password was stored
+            repo.updatePassword(userDAO.getUsername(), encoder.encode(loginRequest.getPassword()));
+            evictCached(userDAO);
+        }
+
+        String token = jwtProvider.createToken(userDAO);
+        return AuthResponseDTO.builder()
+                .token(token)
+                .user(userMapper.toResponse(userDAO))
+                .build();
     }
 
+    // every change to a user goes through here, or both caches serve the old row until their TTL
+    private void evictCached(UserDAO user) {
+        userDetailsService.evict(user.getUsername());
+        profileCache.evict(user.getId());
+    }
 
-    @Override
-    public UserDAO register(RegistrationDTO registrationDTO) {
-        // Check if username exists
-        Optional<UserDAO> existingUser = repo.findByUsername(registrationDTO.username());
-        if (existingUser.isPresent()) {
-            throw new ConflictException("Username already exists");
-        }
+    private AuthResponseDTO rejectLogin(LoginRequest loginRequest, String clientAddress) {
+        loginLimiter.recordFailure(loginRequest.getUsername(), clientAddress);
+        log.warn("Authentication failed for user: {}", loginRequest.getUsername());
+        throw new BadCredentialsException("Invalid username or password");
+    }
 
-        // Check if email exists
-        existingUser = repo.findByEmail(registrationDTO.email());
-        if (existingUser.isPresent()) {
-            throw new ConflictException("Email already exists");
+    private String unknownUserHash() {
+        String hash = unknownUserHash;
+        if (hash == null) {
+            hash = encoder.encode(UUID.randomUUID().toString());
+            unknownUserHash = hash;
         }
+        return hash;
+    }
 
+
+    @Override
+    public UserDAO register(RegistrationDTO registrationDTO) {
         // Validate registration data
         if (registrationDTO.password() == null || registrationDTO.password().length() < 6) {
             throw new ValidationException("Password must be at least 6 characters");
         }
 
+        UserDAO u = userMapper.toEntity(registrationDTO);
+        u.setPassword(encoder.encode(registrationDTO.password()));
         try {
-            UserDAO u = new UserDAO();
-            u.setUsername(registrationDTO.username());
-            u.setFirstName(registrationDTO.firstName());
-            u.setLastName(registrationDTO.lastName());
-            u.setEmail(registrationDTO.email());
-            u.setUsername(registrationDTO.username());
-            u.setPassword(encoder.encode(registrationDTO.password()));
-            return repo.save(u);
+            // the unique constraints decide, so two concurrent registrations can't both win
+            return repo.saveAndFlush(u);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException(conflictMessage(e));
         } catch (Exception e) {
             log.info("Error during registration for user: {}", registrationDTO.username(), e);
             throw new ValidationException("Error during registration: " + e.getMessage());
@@ -113,12 +157,110 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDAO> getUsers() {
-        try {
-            return repo.findAll();
-        } catch (Exception e) {
-            throw new ValidationException("Error retrieving users");
+    public BulkRegistrationResultDTO registerAll(List<RegistrationDTO> registrations, Long createdBy) {
+        if (registrations.size() > MAX_BULK_REGISTRATIONS) {
+            throw new ValidationException("At most " + MAX_BULK_REGISTRATIONS + " users can be registered at once");
+        }
+        List<RegistrationDTO> valid = new ArrayList<>(registrations.size());
+        List<String> invalid = new ArrayList<>();
+        for (RegistrationDTO registration : registrations) {
+            if (registration.password() == null || registration.password().length() < 6) {
+                invalid.add(registration.username());
+            } else {
+                valid.add(registration);
+            }
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<String> conflicts = new ArrayList<>();
+        int created = 0;
+        for (int from = 0; from < valid.size(); from += INSERT_BATCH_SIZE) {
+            List<RegistrationDTO> chunk = valid.subList(from, Math.min(from + INSERT_BATCH_SIZE, valid.size()));
+            List<String> hashes = encodeAll(chunk.stream().map(RegistrationDTO::password).toList());
+            List<Object[]> rows = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                RegistrationDTO r = chunk.get(i);
+                rows.add(new Object[]{r.username(), r.firstName(), r.lastName(), r.email(), hashes.get(i),
+                        createdBy, createdBy, now, now});
+            }
+            int[] counts = jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows, INSERT_USER_TYPES);
+            for (int i = 0; i < counts.length; i++) {
+                // 0 means ON CONFLICT skipped the row; drivers that don't report counts return SUCCESS_NO_INFO
+                if (counts[i] == 0) {
+                    conflicts.add(chunk.get(i).username());
+                } else {
+                    created++;
+                }
+            }
+        }
+        log.info("Bulk registration: {} requested, {} created, {} conflicts, {} invalid",
+                registrations.size(), created, conflicts.size(), invalid.size());
+        return new BulkRegistrationResultDTO(registrations.size(), created, conflicts, invalid);
+    }
+
+    private List<String> encodeAll(List<String> passwords) {
+        if (encoder instanceof OffloadingPasswordEncoder offloading) {
+            return offloading.encodeAll(passwords);
         }
+        return passwords.stream().map(encoder::encode).toList();
+    }
+
+    private static String conflictMessage(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException cve && cve.getConstraintName() != null
+                ? cve.getConstraintName().toLowerCase(Locale.ROOT)
+                : "";
+        if (constraint.contains(UserDAO.USERNAME_CONSTRAINT)) {
+            return "Username already exists";
+        }
+        if (constraint.contains(UserDAO.EMAIL_CONSTRAINT)) {
+            return "Email already exists";
+        }
+        return "Username or email already exists";
+    }
+
+    @Override
+    public CursorPageDTO<UserSummary> getUsers(String cursor, Integer size) {
+        int pageSize = size == null ? directoryProps.getDefaultPageSize() : size;
+        if (pageSize < 1 || pageSize > directoryProps.getMaxPageSize()) {
+            throw new ValidationException("Page size must be between 1 and " + directoryProps.getMaxPageSize());
+        }
+        long after = cursor == null || cursor.isBlank() ? 0 : PageCursor.decodeId(cursor);
+
+        // one extra row tells whether there is a next page without a count query
+        List<UserSummary> rows = repo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<UserSummary> items = hasNext ? rows.subList(0, pageSize) : rows;
+        return CursorPageDTO.<UserSummary>builder()
+                .items(items)
+                .nextCursor(hasNext ? PageCursor.encode(items.get(items.size() - 1).getId()) : null)
+                .build();
+    }
+
+    @Override
+    public List<UserResponseDTO> getByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.size() > MAX_IDS_PER_LOOKUP) {
+            throw new ValidationException("At most " + MAX_IDS_PER_LOOKUP + " user ids can be looked up at once");
+        }
+        if (distinct.isEmpty()) {
+            return List.of();
+        }
+        List<UserSummary> rows = repo.findByIdIn(distinct);
+        List<UserResponseDTO> users = new ArrayList<>(rows.size());
+        for (UserSummary row : rows) {
+            users.add(UserResponseDTO.builder()
+                    .id(row.getId())
+                    .username(row.getUsername())
+                    .firstName(row.getFirstName())
+                    .lastName(row.getLastName())
+                    .email(row.getEmail())
+                    .build());
+        }
+        return users;
     }
 
     @Override
@@ -132,8 +274,18 @@ public class UserServiceImpl implements UserService {
         UserDAO userDAO = repo.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
         return ResponseEntity.ok(
-                modelMapper.map(userDAO, UserResponseDTO.class)
+                userMapper.toResponse(userDAO)
         );
     }
-}
 
+    @Override
+    @Transactional
+    public void logoutAll(Long userId) {
+        if (repo.incrementTokenEpoch(userId, Instant.now()) == 0) {
+            throw new ResourceNotFoundException("User not found with ID: " + userId);
+        }
+        long epoch = repo.findTokenEpochById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        blacklist.revokeAll(userId, epoch);
+    }
+}
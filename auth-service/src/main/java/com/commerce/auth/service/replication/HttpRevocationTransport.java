@@ -0,0 +1,116 @@
+package com.commerce.auth.service.replication;
+
+import com.commerce.auth.config.JwtProperties;
+import com.commerce.auth.config.RevocationProperties;
+import com.commerce.auth.dtos.RevocationDeltaDTO;
+import com.commerce.common.dto.RevocationFeedDTO;
+import com.commerce.common.dto.RevokedTokenDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Replicates revocations to the other auth-service instances registered in service discovery.
+ * Deltas are pushed asynchronously to {@code /api/auth/internal/revocations}; a joining instance
+ * catches up by reading its peers' revocation feed from the start.
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.revocation", name = "transport", havingValue = "http")
+@Slf4j
+public class HttpRevocationTransport implements RevocationTransport {
+  public static final String PEER_SECRET_HEADER = "X-Revocation-Peer-Secret";
+  
+  private final DiscoveryClient discoveryClient;
+  private final ObjectProvider<Registration> registration;
+  private final RevocationProperties props;
+  private final RestClient restClient = RestClient.create();
+  private final ExecutorService sender = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "revocation-replication");
+    t.setDaemon(true);
+    return t;
+  });
+  private volatile RevocationListener listener;
+  
+  public HttpRevocationTransport(DiscoveryClient discoveryClient, ObjectProvider<Registration> registration,
+                                 RevocationProperties props, JwtProperties jwtProperties) {
+    if (props.getPeerSecret() != null && props.getPeerSecret().equals(jwtProperties.getSecret())) {
+      // anyone reading one replication request could sign tokens for any user
+      throw new IllegalStateException("auth.revocation.peer-secret must not be the JWT signing secret");
+    }
+    this.discoveryClient = discoveryClient;
+    this.registration = registration;
+    this.props = props;
+  }
+  
+  @Override
+  public List<RevokedTokenDTO> join(String nodeId, RevocationListener listener) {
+    this.listener = listener;
+    List<RevokedTokenDTO> known = new ArrayList<>();
+    for (ServiceInstance peer : peers()) {
+      try {
+        RevocationFeedDTO feed = restClient.get()
+            .uri(peer.getUri() + "/api/auth/revocations?since=0")
+            .retrieve()
+            .body(RevocationFeedDTO.class);
+        if (feed != null && feed.getRevoked() != null) {
+          known.addAll(feed.getRevoked());
+        }
+      } catch (Exception e) {
+        log.warn("Could not read revocations from peer {}: {}", peer.getUri(), e.getMessage());
+      }
+    }
+    return known;
+  }
+  
+  @Override
+  public void broadcast(RevocationDeltaDTO delta) {
+    sender.execute(() -> {
+      for (ServiceInstance peer : peers()) {
+        try {
+          restClient.post()
+              .uri(peer.getUri() + "/api/auth/internal/revocations")
+              .header(PEER_SECRET_HEADER, props.getPeerSecret())
+              .body(delta)
+              .retrieve()
+              .toBodilessEntity();
+        } catch (Exception e) {
+          log.warn("Could not replicate revocations to peer {}: {}", peer.getUri(), e.getMessage());
+        }
+      }
+    });
+  }
+  
+  /**
+   * Hands a delta received from a peer to the local node.
+   */
+  public boolean deliver(String peerSecret, RevocationDeltaDTO delta) {
+    if (peerSecret == null || props.getPeerSecret() == null || !MessageDigest.isEqual(
+        peerSecret.getBytes(StandardCharsets.UTF_8), props.getPeerSecret().getBytes(StandardCharsets.UTF_8))) {
+      return false;
+    }
+    RevocationListener current = listener;
+    if (current != null) {
+      current.onDelta(delta);
+    }
+    return true;
+  }
+  
+  private List<ServiceInstance> peers() {
+    Registration self = registration.getIfAvailable();
+    return discoveryClient.getInstances(props.getServiceId()).stream()
+        .filter(instance -> self == null || !instance.getInstanceId().equals(self.getInstanceId()))
+        .toList();
+  }
+}
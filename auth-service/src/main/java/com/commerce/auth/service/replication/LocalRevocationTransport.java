@@ -0,0 +1,38 @@
+package com.commerce.auth.service.replication;
+
+import com.commerce.auth.dtos.RevocationDeltaDTO;
+import com.commerce.common.dto.RevokedTokenDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process transport: the default for a single instance, and a stand-in for the network
+ * when several instances run in one JVM (tests).
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.revocation", name = "transport", havingValue = "local", matchIfMissing = true)
+public class LocalRevocationTransport implements RevocationTransport {
+  private final Map<String, RevocationListener> members = new ConcurrentHashMap<>();
+  
+  @Override
+  public List<RevokedTokenDTO> join(String nodeId, RevocationListener listener) {
+    List<RevokedTokenDTO> known = new ArrayList<>();
+    members.values().forEach(member -> known.addAll(member.snapshot()));
+    members.put(nodeId, listener);
+    return known;
+  }
+  
+  @Override
+  public void broadcast(RevocationDeltaDTO delta) {
+    members.forEach((nodeId, member) -> {
+      if (!nodeId.equals(delta.origin())) {
+        member.onDelta(delta);
+      }
+    });
+  }
+}
@@ -0,0 +1,19 @@
+package com.commerce.auth.service.replication;
+
+import com.commerce.auth.dtos.RevocationDeltaDTO;
+import com.commerce.common.dto.RevokedTokenDTO;
+
+import java.util.List;
+
+/**
+ * A node taking part in revocation replication.
+ */
+public interface RevocationListener {
+  
+  void onDelta(RevocationDeltaDTO delta);
+  
+  /**
+   * Every revocation this node currently holds, handed to nodes that join later.
+   */
+  List<RevokedTokenDTO> snapshot();
+}
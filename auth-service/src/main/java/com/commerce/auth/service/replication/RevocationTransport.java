@@ -0,0 +1,22 @@
+package com.commerce.auth.service.replication;
+
+import com.commerce.auth.dtos.RevocationDeltaDTO;
+import com.commerce.common.dto.RevokedTokenDTO;
+
+import java.util.List;
+
+/**
+ * Carries revocation deltas between auth-service instances.
+ */
+public interface RevocationTransport {
+  
+  /**
+   * Registers a node and returns the revocations already known to its peers.
+   */
+  List<RevokedTokenDTO> join(String nodeId, RevocationListener listener);
+  
+  /**
+   * Sends a delta to every other node; delivery is best effort.
+   */
+  void broadcast(RevocationDeltaDTO delta);
+}
@@ -0,0 +1,82 @@
+package com.commerce.auth.benchmark;
+
+import com.commerce.auth.dtos.UserMapper;
+import com.commerce.auth.dtos.UserMapperImpl;
+import com.commerce.auth.models.UserDAO;
+import com.commerce.common.dto.UserResponseDTO;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users mapped per second on a single thread, as every login and profile lookup maps them: the
+ * ModelMapper the services used to map with against the generated {@link UserMapper}.
+ * <p>
+ * Run with the GC profiler to see the bytes allocated per mapping ({@code gc.alloc.rate.norm}):
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main UserMappingBenchmark -prof gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class UserMappingBenchmark {
+
+  private ModelMapper modelMapper;
+  private UserMapper userMapper;
+  private UserDAO user;
+
+  @Setup
+  public void setUp() {
+    modelMapper = configuredModelMapper();
+    userMapper = new UserMapperImpl();
+    user = UserDAO.builder()
+        .id(5L)
+        .username("benchmark")
+        .firstName("Bench")
+        .lastName("Mark")
+        .email("benchmark@example.com")
+        .password("$2a$10$notarealhashnotarealhashnotarealhashnotarealhashnot")
+        .createdAt(Instant.now())
+        .updatedAt(Instant.now())
+        .build();
+  }
+
+  // configured as the services had it before the generated mappers replaced it
+  private static ModelMapper configuredModelMapper() {
+    ModelMapper modelMapper = new ModelMapper();
+    modelMapper.getConfiguration()
+        .setMatchingStrategy(MatchingStrategies.STRICT)
+        .setCollectionsMergeEnabled(false)
+        .setSkipNullEnabled(true)
+        .setFieldMatchingEnabled(true)
+        .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
+    return modelMapper;
+  }
+
+  @Benchmark
+  public UserResponseDTO modelMapper() {
+    return modelMapper.map(user, UserResponseDTO.class);
+  }
+
+  @Benchmark
+  public UserResponseDTO generated() {
+    return userMapper.toResponse(user);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(UserMappingBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+}
@@ -0,0 +1,40 @@
+package com.commerce.auth.security;
+
+import com.commerce.auth.config.LoginLimitProperties;
+import com.commerce.common.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptLimiterTest {
+
+    private final LoginAttemptLimiter limiter =
+            new LoginAttemptLimiter(new LoginLimitProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void checkAllowed_RejectsUsernameAfterTooManyFailures() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            limiter.recordFailure("Alice", null);
+        }
+
+        // Act & Assert
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkAllowed("alice", null));
+        assertDoesNotThrow(() -> limiter.checkAllowed("bob", null));
+    }
+
+    @Test
+    void checkAllowed_SprayOfDistinctUsernamesLocksOutNobodyElse() {
+        // Arrange: credential stuffing, a few failures each for many usernames from many addresses
+        for (int i = 0; i < 50_000; i++) {
+            for (int attempt = 0; attempt < 3; attempt++) {
+                limiter.recordFailure("victim-" + i, null);
+            }
+        }
+
+        // Act & Assert
+        assertDoesNotThrow(() -> limiter.checkAllowed("alice", null));
+        assertDoesNotThrow(() -> limiter.checkAllowed("victim-7", null));
+    }
+}
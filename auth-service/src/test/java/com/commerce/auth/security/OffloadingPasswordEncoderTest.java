@@ -0,0 +1,117 @@
+package com.commerce.auth.security;
+
+import com.commerce.auth.config.PasswordHashingProperties;
+import com.commerce.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffloadingPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingProperties props;
+    private OffloadingPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        props = new PasswordHashingProperties();
+        props.setStrength(4);
+        props.setThreads(1);
+        props.setQueueCapacity(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    void encodeAndMatches_RunOnHashingPool() {
+        // Arrange
+        encoder = new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), props, meterRegistry);
+
+        // Act
+        String hash = encoder.encode("password123");
+
+        // Assert
+        assertTrue(encoder.matches("password123", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("auth.password.queue.wait").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void encodeAll_StaysWithinQueueCapacity() {
+        // Arrange: one thread and a queue of one, far fewer slots than passwords
+        encoder = new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), props, meterRegistry);
+        List<String> passwords = List.of("a-password", "b-password", "c-password", "d-password", "e-password");
+
+        // Act
+        List<String> hashes = encoder.encodeAll(passwords);
+
+        // Assert
+        assertEquals(5, hashes.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertTrue(encoder.matches(passwords.get(i), hashes.get(i)));
+        }
+        assertEquals(0.0, meterRegistry.get("auth.password.rejected").counter().count());
+    }
+
+    @Test
+    void upgradeEncoding_WhenStrengthRaised() {
+        // Arrange
+        encoder = new OffloadingPasswordEncoder(new BCryptPasswordEncoder(5), props, meterRegistry);
+        String weakHash = new BCryptPasswordEncoder(4).encode("password123");
+
+        // Act & Assert
+        assertTrue(encoder.upgradeEncoding(weakHash));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password123")));
+    }
+
+    @Test
+    void encode_RejectsWhenSaturated() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        };
+        encoder = new OffloadingPasswordEncoder(blocking, props, meterRegistry);
+        CompletableFuture<String> running = encoder.encodeAsync("first");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = encoder.encodeAsync("second");
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () -> encoder.encode("third"));
+        assertEquals(1.0, meterRegistry.get("auth.password.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+    }
+}
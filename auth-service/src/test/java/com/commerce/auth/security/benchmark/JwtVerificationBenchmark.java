@@ -0,0 +1,78 @@
+package com.commerce.auth.security.benchmark;
+
+import com.commerce.auth.config.JwtProperties;
+import com.commerce.auth.models.UserDAO;
+import com.commerce.auth.security.JwtTokenProvider;
+import com.commerce.common.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens verified per second on a single thread (i.e. per core) by JwtAuthenticationFilter:
+ * the former path, which built a new parser and verified the HMAC in both getUsername and getUserId,
+ * against the single {@link JwtTokenProvider#verify} call backed by a parser built at startup.
+ * <p>
+ * Run with: {@code java -cp <test classpath> org.openjdk.jmh.Main JwtVerificationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+  private static final String SECRET = "ChangeThisSecretToAStrongOne1234";
+
+  private JwtTokenProvider provider;
+  private Key key;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    JwtProperties properties = new JwtProperties();
+    properties.setSecret(SECRET);
+    properties.setExpiration(TimeUnit.HOURS.toMillis(1));
+    provider = new JwtTokenProvider(properties);
+    key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.ISO_8859_1));
+
+    UserDAO user = new UserDAO();
+    user.setId(42L);
+    user.setUsername("testuser");
+    token = provider.createToken(user);
+  }
+
+  // what JwtTokenProvider.validate did before: a new parser per call
+  private Jws<Claims> legacyValidate(String token) {
+    return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+  }
+
+  @Benchmark
+  public void doubleParse(Blackhole bh) {
+    bh.consume(legacyValidate(token).getBody().get("username", String.class));
+    bh.consume(Long.valueOf(legacyValidate(token).getBody().getSubject()));
+  }
+
+  @Benchmark
+  public VerifiedToken singleParse() {
+    return provider.verify(token);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(JwtVerificationBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -0,0 +1,125 @@
+package com.commerce.auth.service;
+
+import com.commerce.auth.config.JwtProperties;
+import com.commerce.auth.config.RevocationProperties;
+import com.commerce.auth.models.UserDAO;
+import com.commerce.auth.repository.UserRepository;
+import com.commerce.auth.security.JwtTokenProvider;
+import com.commerce.auth.service.replication.HttpRevocationTransport;
+import com.commerce.auth.service.replication.LocalRevocationTransport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TokenBlacklistReplicationTest {
+
+    private static final String SECRET = "ChangeThisSecretToAStrongOne1234";
+
+    private JwtProperties jwtProperties;
+    private JwtTokenProvider jwtProvider;
+    private LocalRevocationTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRET);
+        jwtProperties.setExpiration(Duration.ofMinutes(10).toMillis());
+        jwtProvider = new JwtTokenProvider(jwtProperties);
+        transport = new LocalRevocationTransport();
+    }
+
+    private TokenBlacklistService startNode() {
+        TokenBlacklistService node = new TokenBlacklistService(jwtProvider, transport, mock(UserRepository.class), new SimpleMeterRegistry());
+        node.joinCluster();
+        return node;
+    }
+
+    private String token() {
+        UserDAO user = new UserDAO();
+        user.setId(1L);
+        user.setUsername("testuser");
+        return jwtProvider.createToken(user);
+    }
+
+    @Test
+    void blacklist_IsVisibleOnEveryNode() {
+        // Arrange
+        List<TokenBlacklistService> nodes = List.of(startNode(), startNode(), startNode());
+        String revoked = token();
+        String other = token();
+
+        // Act
+        nodes.get(1).blacklist(revoked);
+
+        // Assert
+        for (TokenBlacklistService node : nodes) {
+            assertTrue(node.isBlacklisted(revoked, jwtProvider.verify(revoked)));
+            assertFalse(node.isBlacklisted(other, jwtProvider.verify(other)));
+            assertEquals(1, node.size());
+        }
+    }
+
+    @Test
+    void joinCluster_CatchesUpOnExistingRevocations() {
+        // Arrange
+        TokenBlacklistService first = startNode();
+        List<String> revoked = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String token = token();
+            first.blacklist(token);
+            revoked.add(token);
+        }
+
+        // Act
+        TokenBlacklistService late = startNode();
+
+        // Assert
+        assertEquals(2000, late.size());
+        for (String token : revoked) {
+            assertTrue(late.isBlacklisted(token, jwtProvider.verify(token)));
+        }
+        assertEquals(2000, late.revokedSince(0, null).getRevoked().size());
+    }
+
+    @Test
+    void httpTransport_RequiresPeerSecret() {
+        // Arrange
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        RevocationProperties props = new RevocationProperties();
+        props.setTransport("http");
+
+        // Act & Assert
+        assertFalse(validator.validate(props).isEmpty());
+        props.setPeerSecret(" ");
+        assertFalse(validator.validate(props).isEmpty());
+        props.setPeerSecret("peers-only-secret");
+        assertTrue(validator.validate(props).isEmpty());
+        props.setTransport("local");
+        props.setPeerSecret(null);
+        assertTrue(validator.validate(props).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void httpTransport_RejectsJwtSecretAsPeerSecret() {
+        // Arrange
+        RevocationProperties props = new RevocationProperties();
+        props.setTransport("http");
+        props.setPeerSecret(SECRET);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new HttpRevocationTransport(
+                mock(DiscoveryClient.class), mock(ObjectProvider.class), props, jwtProperties));
+    }
+}
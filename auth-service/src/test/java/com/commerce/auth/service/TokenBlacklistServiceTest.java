@@ -0,0 +1,152 @@
+package com.commerce.auth.service;
+
+import com.commerce.auth.config.JwtProperties;
+import com.commerce.auth.models.UserDAO;
+import com.commerce.auth.repository.UserRepository;
+import com.commerce.auth.security.JwtTokenProvider;
+import com.commerce.auth.service.replication.LocalRevocationTransport;
+import com.commerce.common.dto.RevocationFeedDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TokenBlacklistServiceTest {
+
+    private JwtTokenProvider jwtProvider;
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private TokenBlacklistService blacklist;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("ChangeThisSecretToAStrongOne1234");
+        properties.setExpiration(Duration.ofMinutes(10).toMillis());
+        jwtProvider = new JwtTokenProvider(properties);
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.now());
+        blacklist = new TokenBlacklistService(jwtProvider, new LocalRevocationTransport(), mock(UserRepository.class),
+                meterRegistry, clock);
+    }
+
+    private String token() {
+        return token(0);
+    }
+
+    private String token(long epoch) {
+        UserDAO user = new UserDAO();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setTokenEpoch(epoch);
+        return jwtProvider.createToken(user);
+    }
+
+    @Test
+    void blacklist_RevokesOnlyThatToken() {
+        // Arrange
+        String revoked = token();
+        String other = token();
+
+        // Act
+        blacklist.blacklist(revoked);
+
+        // Assert
+        assertTrue(blacklist.isBlacklisted(revoked, jwtProvider.verify(revoked)));
+        assertFalse(blacklist.isBlacklisted(other, jwtProvider.verify(other)));
+        assertEquals(1.0, meterRegistry.get("auth.blacklist.size").gauge().value());
+    }
+
+    @Test
+    void evictExpired_DropsEntriesOnceTokenExpired() {
+        // Arrange
+        blacklist.blacklist(token());
+        blacklist.blacklist(token());
+
+        // Act
+        clock.advance(Duration.ofMinutes(5));
+        blacklist.evictExpired();
+        int halfway = blacklist.size();
+        clock.advance(Duration.ofMinutes(6));
+        blacklist.evictExpired();
+
+        // Assert
+        assertEquals(2, halfway);
+        assertEquals(0, blacklist.size());
+        assertEquals(2.0, meterRegistry.get("auth.blacklist.evictions").counter().count());
+        assertTrue(blacklist.revokedSince(0, null).getRevoked().isEmpty());
+    }
+
+    @Test
+    void revokedSince_ReturnsEntriesAfterCursor() {
+        // Arrange
+        blacklist.blacklist(token());
+        RevocationFeedDTO first = blacklist.revokedSince(0, null);
+        blacklist.blacklist(token());
+
+        // Act
+        RevocationFeedDTO next = blacklist.revokedSince(first.getCursor(), first.getSource());
+        RevocationFeedDTO otherSource = blacklist.revokedSince(first.getCursor(), "restarted");
+
+        // Assert
+        assertEquals(1, first.getRevoked().size());
+        assertEquals(1, next.getRevoked().size());
+        assertEquals(2, otherSource.getRevoked().size());
+    }
+
+    @Test
+    void revokeAll_RevokesTokensOfEarlierEpochsUntilTheyExpire() {
+        // Arrange
+        String first = token(0);
+        String second = token(0);
+        String afterBump = token(1);
+
+        // Act
+        blacklist.revokeAll(1L, 1);
+
+        // Assert
+        assertTrue(blacklist.isBlacklisted(first, jwtProvider.verify(first)));
+        assertTrue(blacklist.isBlacklisted(second, jwtProvider.verify(second)));
+        assertFalse(blacklist.isBlacklisted(afterBump, jwtProvider.verify(afterBump)));
+        assertEquals(1, blacklist.size());
+        assertEquals(1L, blacklist.revokedSince(0, null).getRevoked().get(0).getUserId());
+
+        clock.advance(Duration.ofMinutes(11));
+        blacklist.evictExpired();
+        assertEquals(0, blacklist.size());
+    }
+
+    static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
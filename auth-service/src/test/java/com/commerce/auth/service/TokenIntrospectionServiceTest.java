@@ -0,0 +1,107 @@
+package com.commerce.auth.service;
+
+import com.commerce.auth.config.JwtProperties;
+import com.commerce.auth.models.UserDAO;
+import com.commerce.auth.repository.UserRepository;
+import com.commerce.auth.security.JwtTokenProvider;
+import com.commerce.auth.service.replication.LocalRevocationTransport;
+import com.commerce.common.dto.TokenValidationDTO;
+import com.commerce.common.dto.UserResponseDTO;
+import com.commerce.common.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenIntrospectionServiceTest {
+
+    @Mock
+    private UserProfileCache profiles;
+
+    private JwtTokenProvider jwtProvider;
+    private TokenBlacklistService blacklist;
+    private TokenIntrospectionService introspection;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("ChangeThisSecretToAStrongOne1234");
+        properties.setExpiration(Duration.ofMinutes(10).toMillis());
+        jwtProvider = new JwtTokenProvider(properties);
+        blacklist = new TokenBlacklistService(jwtProvider, new LocalRevocationTransport(), mock(UserRepository.class),
+                new SimpleMeterRegistry());
+        introspection = new TokenIntrospectionService(jwtProvider, blacklist, profiles);
+    }
+
+    private String token() {
+        UserDAO user = new UserDAO();
+        user.setId(1L);
+        user.setUsername("testuser");
+        return jwtProvider.createToken(user);
+    }
+
+    @Test
+    void validateAll_AnswersFromClaimsWithoutProfile() {
+        // Arrange
+        String valid = token();
+        String revoked = token();
+        blacklist.blacklist(revoked);
+
+        // Act
+        List<TokenValidationDTO> results = introspection.validateAll(List.of(valid, revoked, "garbage"), false);
+
+        // Assert
+        assertTrue(results.get(0).isValid());
+        assertEquals(1L, results.get(0).getUserId());
+        assertEquals("testuser", results.get(0).getUsername());
+        assertNull(results.get(0).getUser());
+        assertEquals("revoked", results.get(1).getReason());
+        assertEquals("invalid", results.get(2).getReason());
+        verifyNoInteractions(profiles);
+    }
+
+    @Test
+    void validateAll_IncludesCachedProfileOnRequest() {
+        // Arrange
+        UserResponseDTO profile = UserResponseDTO.builder().id(1L).username("testuser").email("test@example.com").build();
+        when(profiles.get(1L)).thenReturn(profile);
+
+        // Act
+        List<TokenValidationDTO> results = introspection.validateAll(List.of(token()), true);
+
+        // Assert
+        assertSame(profile, results.get(0).getUser());
+    }
+
+    @Test
+    void describe_UsesClaimsUnlessProfileRequested() {
+        // Act
+        UserResponseDTO fromClaims = introspection.describe(jwtProvider.verify(token()), false);
+
+        // Assert
+        assertEquals(1L, fromClaims.getId());
+        assertEquals("testuser", fromClaims.getUsername());
+        verifyNoInteractions(profiles);
+    }
+
+    @Test
+    void validateAll_RejectsOversizedBatch() {
+        // Arrange
+        List<String> tokens = Collections.nCopies(TokenIntrospectionService.MAX_BATCH_SIZE + 1, "t");
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> introspection.validateAll(tokens, false));
+    }
+}
@@ -0,0 +1,54 @@
+package com.commerce.auth.service;
+
+import com.commerce.auth.config.UserCacheProperties;
+import com.commerce.auth.dtos.UserMapperImpl;
+import com.commerce.auth.models.UserDAO;
+import com.commerce.auth.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserProfileCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserProfileCache profiles;
+    private UserDAO testUser;
+
+    @BeforeEach
+    void setUp() {
+        profiles = new UserProfileCache(userRepository, new UserMapperImpl(), new UserCacheProperties(),
+                new SimpleMeterRegistry());
+
+        testUser = new UserDAO();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setEmail("old@example.com");
+    }
+
+    @Test
+    void evict_ServesChangedProfile() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        profiles.get(1L);
+        profiles.get(1L);
+        testUser.setEmail("new@example.com");
+
+        // Act
+        profiles.evict(1L);
+
+        // Assert
+        assertEquals("new@example.com", profiles.get(1L).getEmail());
+        verify(userRepository, times(2)).findById(1L);
+    }
+}
@@ -0,0 +1,263 @@
+package com.commerce.auth.service.impl;
+
+import com.commerce.auth.config.JwtProperties;
+import com.commerce.auth.config.LoginLimitProperties;
+import com.commerce.auth.config.UserDirectoryProperties;
+import com.commerce.auth.dtos.BulkRegistrationResultDTO;
+import com.commerce.auth.dtos.RegistrationDTO;
+import com.commerce.auth.dtos.UserMapperImpl;
+import com.commerce.auth.models.UserDAO;
+import com.commerce.auth.repository.UserRepository;
+import com.commerce.auth.repository.UserSummary;
+import com.commerce.auth.security.CustomUserDetailsService;
+import com.commerce.auth.security.JwtTokenProvider;
+import com.commerce.auth.security.LoginAttemptLimiter;
+import com.commerce.auth.service.TokenBlacklistService;
+import com.commerce.auth.service.UserProfileCache;
+import com.commerce.auth.service.replication.LocalRevocationTransport;
+import com.commerce.common.dto.AuthResponseDTO;
+import com.commerce.common.dto.CursorPageDTO;
+import com.commerce.common.dto.LoginRequest;
+import com.commerce.common.exception.BadCredentialsException;
+import com.commerce.common.exception.ConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs UserServiceImpl against an in-memory database in PostgreSQL mode, to check the SQL it
+ * really issues and how it reacts to the real unique constraints.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auth;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = UserServiceImplJpaTest.JpaConfig.class)
+class UserServiceImplJpaTest {
+
+    @Configuration
+    @EntityScan(basePackageClasses = UserDAO.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final PasswordEncoder encoder = new BCryptPasswordEncoder(4);
+    private final JwtTokenProvider jwtProvider = jwtProvider();
+    private Statistics statistics;
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        userService = userService(encoder);
+
+        userRepository.deleteAll();
+        UserDAO user = new UserDAO();
+        user.setUsername("testuser");
+        user.setEmail("test@example.com");
+        user.setPassword(encoder.encode("password123"));
+        userRepository.saveAndFlush(user);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private static JwtTokenProvider jwtProvider() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret("ChangeThisSecretToAStrongOne1234");
+        jwtProperties.setExpiration(Duration.ofMinutes(10).toMillis());
+        return new JwtTokenProvider(jwtProperties);
+    }
+
+    private UserServiceImpl userService(PasswordEncoder passwordEncoder) {
+        return userService(passwordEncoder, mock(TokenBlacklistService.class));
+    }
+
+    private UserServiceImpl userService(PasswordEncoder passwordEncoder, TokenBlacklistService blacklist) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new UserServiceImpl(
+                userRepository,
+                passwordEncoder,
+                new UserMapperImpl(),
+                jwtProvider,
+                blacklist,
+                new LoginAttemptLimiter(new LoginLimitProperties(), meterRegistry),
+                mock(CustomUserDetailsService.class),
+                mock(UserProfileCache.class),
+                jdbcTemplate,
+                new UserDirectoryProperties());
+    }
+
+    @Test
+    void login_RunsOneStatement() {
+        // Act
+        AuthResponseDTO response = userService.login(new LoginRequest("testuser", "password123"), "127.0.0.1");
+
+        // Assert
+        assertNotNull(response.getToken());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void logoutAll_OldTokensStayRevokedAfterRestart() {
+        // Arrange
+        TokenBlacklistService blacklist = new TokenBlacklistService(jwtProvider, new LocalRevocationTransport(),
+                userRepository, new SimpleMeterRegistry());
+        UserServiceImpl service = userService(encoder, blacklist);
+        String old = service.login(new LoginRequest("testuser", "password123"), "127.0.0.1").getToken();
+        Long userId = userRepository.findByUsername("testuser").orElseThrow().getId();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> service.logoutAll(userId));
+        String fresh = service.login(new LoginRequest("testuser", "password123"), "127.0.0.1").getToken();
+
+        // Act: a new instance with nothing in memory and no peers to catch up from
+        TokenBlacklistService restarted = new TokenBlacklistService(jwtProvider, new LocalRevocationTransport(),
+                userRepository, new SimpleMeterRegistry());
+        restarted.joinCluster();
+
+        // Assert
+        assertTrue(restarted.isBlacklisted(old, jwtProvider.verify(old)));
+        assertFalse(restarted.isBlacklisted(fresh, jwtProvider.verify(fresh)));
+        assertEquals(1, restarted.revokedSince(0, null).getRevoked().size());
+    }
+
+    @Test
+    void login_UpgradesHashStoredWithLowerStrength() {
+        // Arrange: the strength was raised from 4 to 5 since the password was stored
+        PasswordEncoder stronger = new BCryptPasswordEncoder(5);
+        UserServiceImpl upgraded = userService(stronger);
+
+        // Act
+        AuthResponseDTO response = upgraded.login(new LoginRequest("testuser", "password123"), "127.0.0.1");
+
+        // Assert
+        assertNotNull(response.getToken());
+        String stored = userRepository.findByUsername("testuser").orElseThrow().getPassword();
+        assertTrue(stored.startsWith("$2a$05$"), stored);
+        assertTrue(stronger.matches("password123", stored));
+        assertNotNull(upgraded.login(new LoginRequest("testuser", "password123"), "127.0.0.1").getToken());
+    }
+
+    @Test
+    void login_WrongPasswordRunsOneStatement() {
+        // Act & Assert
+        assertThrows(BadCredentialsException.class,
+                () -> userService.login(new LoginRequest("testuser", "wrong"), "127.0.0.1"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void register_DuplicateUsernameIsConflict() {
+        // Arrange
+        RegistrationDTO duplicate = new RegistrationDTO("testuser", "Other", "Person", "other@example.com", "password123");
+
+        // Act & Assert
+        ConflictException ex = assertThrows(ConflictException.class, () -> userService.register(duplicate));
+        assertEquals("Username already exists", ex.getMessage());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void register_DuplicateEmailIsConflict() {
+        // Arrange
+        RegistrationDTO duplicate = new RegistrationDTO("otheruser", "Other", "Person", "test@example.com", "password123");
+
+        // Act & Assert
+        ConflictException ex = assertThrows(ConflictException.class, () -> userService.register(duplicate));
+        assertEquals("Email already exists", ex.getMessage());
+    }
+
+    @Test
+    void registerAll_InsertsInBatchesAndSkipsConflicts() {
+        // Arrange: 2500 new users plus one clashing with the existing user and one duplicated in the request
+        List<RegistrationDTO> registrations = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            registrations.add(new RegistrationDTO("user" + i, "First", "Last", "user" + i + "@example.com", "password123"));
+        }
+        registrations.add(new RegistrationDTO("testuser", "First", "Last", "new@example.com", "password123"));
+        registrations.add(new RegistrationDTO("user7", "First", "Last", "again7@example.com", "password123"));
+        registrations.add(new RegistrationDTO("shortpw", "First", "Last", "short@example.com", "123"));
+
+        // Act
+        BulkRegistrationResultDTO result = userService.registerAll(registrations, 1L);
+
+        // Assert
+        assertEquals(2503, result.requested());
+        assertEquals(2500, result.created());
+        assertEquals(List.of("testuser", "user7"), result.conflicts());
+        assertEquals(List.of("shortpw"), result.invalid());
+        assertEquals(2501, userRepository.count());
+        assertTrue(encoder.matches("password123", userRepository.findByUsername("user2499").orElseThrow().getPassword()));
+        assertEquals(1L, userRepository.findByUsername("user0").orElseThrow().getCreatedBy());
+    }
+
+    @Test
+    void getUsers_WalksAllPagesWithOneQueryEach() {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            UserDAO user = new UserDAO();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("hash");
+            userRepository.save(user);
+        }
+        statistics.clear();
+
+        // Act
+        List<String> usernames = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDTO<UserSummary> page = userService.getUsers(cursor, 2);
+            page.getItems().forEach(u -> usernames.add(u.getUsername()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(List.of("testuser", "user0", "user1", "user2", "user3"), usernames);
+        assertEquals(3, pages);
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -1,32 +1,54 @@
 package com.commerce.auth.service.impl;
 
+import com.commerce.auth.config.UserDirectoryProperties;
 import com.commerce.auth.dtos.RegistrationDTO;
+import com.commerce.auth.dtos.UserMapper;
+import com.commerce.auth.dtos.UserMapperImpl;
 import com.commerce.auth.models.UserDAO;
 import com.commerce.auth.repository.UserRepository;
+import com.commerce.auth.repository.UserSummary;
+import com.commerce.auth.security.CustomUserDetailsService;
 import com.commerce.auth.security.JwtTokenProvider;
+import com.commerce.auth.security.LoginAttemptLimiter;
+import com.commerce.auth.service.TokenBlacklistService;
+import com.commerce.auth.service.UserProfileCache;
 import com.commerce.common.dto.AuthResponseDTO;
+import com.commerce.common.dto.CursorPageDTO;
 import com.commerce.common.dto.LoginRequest;
 import com.commerce.common.dto.UserResponseDTO;
+import com.commerce.common.exception.BadCredentialsException;
 import com.commerce.common.exception.ConflictException;
 import com.commerce.common.exception.ResourceNotFoundException;
+import com.commerce.common.exception.TooManyRequestsException;
 import com.commerce.common.exception.ValidationException;
+import com.commerce.common.util.PageCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,14 +61,26 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private UserMapper userMapper = new UserMapperImpl();
+
     @Mock
-    private ModelMapper modelMapper;
+    private JwtTokenProvider jwtTokenProvider;
 
     @Mock
-    private AuthenticationManager authenticationManager;
+    private TokenBlacklistService tokenBlacklistService;
 
     @Mock
-    private JwtTokenProvider jwtTokenProvider;
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @Mock
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Spy
+    private UserDirectoryProperties userDirectoryProperties = new UserDirectoryProperties();
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -79,76 +113,116 @@ class UserServiceImplTest {
     @Test
     void login_Successful() {
         // Arrange
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(null);
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
         when(jwtTokenProvider.createToken(testUser)).thenReturn("jwtToken");
-        when(modelMapper.map(testUser, UserResponseDTO.class)).thenReturn(new UserResponseDTO());
 
         // Act
-        AuthResponseDTO response = userService.login(loginRequest);
+        AuthResponseDTO response = userService.login(loginRequest, "127.0.0.1");
 
         // Assert
         assertNotNull(response);
         assertEquals("jwtToken", response.getToken());
-        verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+        assertEquals("testuser", response.getUser().getUsername());
         verify(userRepository).findByUsername("testuser");
+        verify(userRepository, never()).updatePassword(any(), any());
     }
 
     @Test
     void login_InvalidCredentials() {
         // Arrange
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenThrow(new BadCredentialsException("Invalid credentials"));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(false);
 
         // Act & Assert
-        assertThrows(BadCredentialsException.class, () -> userService.login(loginRequest));
+        assertThrows(BadCredentialsException.class, () -> userService.login(loginRequest, "127.0.0.1"));
+        verify(loginAttemptLimiter).recordFailure("testuser", "127.0.0.1");
     }
 
     @Test
-    void login_UserNotFoundAfterAuthentication() {
+    void login_RejectedByLimiterSkipsAuthentication() {
+        // Arrange
+        doThrow(new TooManyRequestsException("Too many failed login attempts"))
+                .when(loginAttemptLimiter).checkAllowed("testuser", "127.0.0.1");
+
+        // Act & Assert
+        assertThrows(TooManyRequestsException.class, () -> userService.login(loginRequest, "127.0.0.1"));
+        verify(userRepository, never()).findByUsername(any());
+        verify(passwordEncoder, never()).matches(any(), any());
+    }
+
+    @Test
+    void login_UnknownUserStillComparesPassword() {
         // Arrange
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(null);
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.empty());
+        when(passwordEncoder.encode(any())).thenReturn("dummyHash");
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> userService.login(loginRequest));
+        assertThrows(BadCredentialsException.class, () -> userService.login(loginRequest, "127.0.0.1"));
+        verify(passwordEncoder).matches("password123", "dummyHash");
+        verify(loginAttemptLimiter).recordFailure("testuser", "127.0.0.1");
+    }
+
+    @Test
+    void login_RehashesPasswordStoredWithLowerStrength() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("strongerHash");
+
+        // Act
+        userService.login(loginRequest, "127.0.0.1");
+
+        // Assert
+        verify(userRepository).updatePassword("testuser", "strongerHash");
+        verify(customUserDetailsService).evict("testuser");
+        verify(userProfileCache).evict(1L);
     }
 
     @Test
     void register_Successful() {
         // Arrange
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
-        when(userRepository.save(any(UserDAO.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(UserDAO.class))).thenReturn(testUser);
 
         // Act
         UserDAO result = userService.register(registrationDTO);
 
         // Assert
         assertNotNull(result);
-        verify(userRepository).save(any(UserDAO.class));
+        verify(userRepository).saveAndFlush(any(UserDAO.class));
+        verify(userRepository, never()).findByUsername(any());
+        verify(userRepository, never()).findByEmail(any());
     }
 
     @Test
     void register_UsernameExists() {
         // Arrange
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(UserDAO.class)))
+                .thenThrow(uniqueViolation(UserDAO.USERNAME_CONSTRAINT));
 
         // Act & Assert
-        assertThrows(ConflictException.class, () -> userService.register(registrationDTO));
+        ConflictException ex = assertThrows(ConflictException.class, () -> userService.register(registrationDTO));
+        assertEquals("Username already exists", ex.getMessage());
     }
 
     @Test
     void register_EmailExists() {
         // Arrange
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(UserDAO.class)))
+                .thenThrow(uniqueViolation(UserDAO.EMAIL_CONSTRAINT));
 
         // Act & Assert
-        assertThrows(ConflictException.class, () -> userService.register(registrationDTO));
+        ConflictException ex = assertThrows(ConflictException.class, () -> userService.register(registrationDTO));
+        assertEquals("Email already exists", ex.getMessage());
+    }
+
+    private static DataIntegrityViolationException uniqueViolation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", new SQLException("duplicate key"), constraint));
     }
 
     @Test
@@ -167,25 +241,74 @@ class UserServiceImplTest {
     }
 
     @Test
-    void getUsers_Successful() {
+    void getUsers_FirstPageHasCursorWhenMoreRowsExist() {
         // Arrange
-        when(userRepository.findAll()).thenReturn(List.of(testUser));
+        UserSummary first = summary(1L);
+        UserSummary second = summary(2L);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(first, second));
 
         // Act
-        List<UserDAO> result = userService.getUsers();
+        CursorPageDTO<UserSummary> page = userService.getUsers(null, 1);
 
         // Assert
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
+        assertEquals(List.of(first), page.getItems());
+        assertEquals(PageCursor.encode(1L), page.getNextCursor());
     }
 
     @Test
-    void getUsers_ExceptionThrown() {
+    void getUsers_ContinuesAfterCursor() {
         // Arrange
-        when(userRepository.findAll()).thenThrow(new RuntimeException("Database error"));
+        UserSummary last = summary(8L);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(7L, Limit.of(51))).thenReturn(List.of(last));
+
+        // Act
+        CursorPageDTO<UserSummary> page = userService.getUsers(PageCursor.encode(7L), null);
 
+        // Assert
+        assertEquals(List.of(last), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getUsers_RejectsInvalidCursorAndSize() {
         // Act & Assert
-        assertThrows(ValidationException.class, () -> userService.getUsers());
+        assertThrows(ValidationException.class, () -> userService.getUsers("not a cursor!", 10));
+        assertThrows(ValidationException.class, () -> userService.getUsers(null, 0));
+        assertThrows(ValidationException.class, () -> userService.getUsers(null, 501));
+    }
+
+    @Test
+    void getByIds_QueriesDistinctIdsOnce() {
+        // Arrange
+        UserSummary known = summary(3L);
+        when(known.getUsername()).thenReturn("testuser");
+        when(userRepository.findByIdIn(Set.of(3L, 9L))).thenReturn(List.of(known));
+
+        // Act
+        List<UserResponseDTO> users = userService.getByIds(Arrays.asList(3L, 9L, 3L, null));
+
+        // Assert
+        assertEquals(1, users.size());
+        assertEquals(3L, users.get(0).getId());
+        assertEquals("testuser", users.get(0).getUsername());
+        verify(userRepository, times(1)).findByIdIn(any());
+    }
+
+    @Test
+    void getByIds_RejectsTooManyIds() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> userService.getByIds(ids));
+        verify(userRepository, never()).findByIdIn(any());
+    }
+
+    private static UserSummary summary(Long id) {
+        UserSummary summary = mock(UserSummary.class);
+        lenient().when(summary.getId()).thenReturn(id);
+        return summary;
     }
 
     @Test
@@ -214,7 +337,6 @@ class UserServiceImplTest {
     void getByUserID_Successful() {
         // Arrange
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(modelMapper.map(testUser, UserResponseDTO.class)).thenReturn(new UserResponseDTO());
 
         // Act
         var response = userService.getByUserID(1L);
@@ -232,4 +354,26 @@ class UserServiceImplTest {
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> userService.getByUserID(99L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void logoutAll_BumpsEpochAndRevokesEarlierTokens() {
+        // Arrange
+        when(userRepository.incrementTokenEpoch(eq(1L), any())).thenReturn(1);
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.of(3L));
+
+        // Act
+        userService.logoutAll(1L);
+
+        // Assert
+        verify(tokenBlacklistService).revokeAll(1L, 3L);
+    }
+
+    @Test
+    void logoutAll_UserNotFound() {
+        // Arrange
+        when(userRepository.incrementTokenEpoch(eq(1L), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> userService.logoutAll(1L));
+    }
+}
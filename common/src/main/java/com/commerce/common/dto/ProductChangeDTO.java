@@ -0,0 +1,24 @@
+package com.commerce.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+
+/**
+ * State of a product after its latest change. A deleted product is reported once more with
+ * {@code deleted} set, so caches can drop it.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeDTO {
+  private Long id;
+  private String name;
+  private BigDecimal price;
+  private boolean deleted;
+  private long sequence;
+}
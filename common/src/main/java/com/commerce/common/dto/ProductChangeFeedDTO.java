@@ -0,0 +1,22 @@
+package com.commerce.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+/**
+ * Products changed after a cursor, in the order of their changes. {@code cursor} is where the next
+ * poll continues, also when nothing changed; {@code hasMore} says it can continue right away.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeFeedDTO {
+  private String cursor;
+  private boolean hasMore;
+  private List<ProductChangeDTO> changes;
+}
@@ -0,0 +1,23 @@
+package com.commerce.common.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+/**
+ * Revocations published by auth-service after a given cursor.
+ * {@code source} changes whenever auth-service restarts, which tells pollers to re-read from zero.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationFeedDTO {
+  private String source;
+  private long cursor;
+  private List<RevokedTokenDTO> revoked;
+}
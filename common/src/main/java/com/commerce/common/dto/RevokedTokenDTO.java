@@ -0,0 +1,25 @@
+package com.commerce.common.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+
+/**
+ * A revocation, kept until the tokens it revokes have expired. Either a single token,
+ * identified by its jti, or every token of {@code userId} issued with an epoch below {@code epoch}
+ * (log out everywhere).
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedTokenDTO {
+  private String tokenId;
+  private Long userId;
+  private Long epoch;
+  private Instant expiresAt;
+}
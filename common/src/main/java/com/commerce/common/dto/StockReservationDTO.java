@@ -0,0 +1,18 @@
+package com.commerce.common.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationDTO {
+  private Long orderId;
+  private Instant expiresAt;
+}
@@ -0,0 +1,23 @@
+package com.commerce.common.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+/**
+ * Stock to hold for an order until it is committed, released or {@code ttlSeconds} have passed.
+ * Without a TTL the product-service default applies.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequestDTO {
+  private Long orderId;
+  private List<StockUpdateBatchDTO.StockUpdateItem> items;
+  private Long ttlSeconds;
+}
@@ -0,0 +1,27 @@
+package com.commerce.common.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+
+/**
+ * Result of checking one token. For invalid tokens only {@code valid} and {@code reason} are set;
+ * {@code user} is only filled in when the profile was requested.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenValidationDTO {
+  private boolean valid;
+  // "expired", "revoked" or "invalid" when not valid
+  private String reason;
+  private Long userId;
+  private String username;
+  private Instant expiresAt;
+  private UserResponseDTO user;
+}
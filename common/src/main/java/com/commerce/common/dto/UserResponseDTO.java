@@ -15,6 +15,7 @@ import lombok.experimental.SuperBuilder;
 @AllArgsConstructor
 public class UserResponseDTO extends BaseEntityResponseDTO {
   private Long id;
+  private String username;
   private String firstName;
   
   private String lastName;
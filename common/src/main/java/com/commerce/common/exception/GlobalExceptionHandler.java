@@ -102,6 +102,28 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
+    // 429 - Too Many Requests (e.g., login attempts over the limit)
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<UniversalResponse> handleTooManyRequests(TooManyRequestsException ex) {
+        UniversalResponse response = UniversalResponse.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .message(ex.getMessage())
+                .data(null)
+                .build();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+    }
+
+    // 503 - Service Unavailable (e.g., overloaded, retry later)
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<UniversalResponse> handleServiceUnavailable(ServiceUnavailableException ex) {
+        UniversalResponse response = UniversalResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .message(ex.getMessage())
+                .data(null)
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
     // 500 - Internal Server Error
     @ExceptionHandler(Exception.class)
     public ResponseEntity<UniversalResponse> handleGenericException(Exception ex) {
@@ -0,0 +1,11 @@
+package com.commerce.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {  // 503, the client should retry later
+    public ServiceUnavailableException(String msg) {
+        super(msg);
+    }
+}
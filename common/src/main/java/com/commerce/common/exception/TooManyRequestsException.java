@@ -0,0 +1,11 @@
+package com.commerce.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends RuntimeException {  // 429
+    public TooManyRequestsException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,44 @@
+package com.commerce.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Verifies tokens issued by auth-service locally (HMAC signature and expiry),
+ * so downstream services don't need a round trip to /api/auth/validate.
+ * The parser is immutable and built once, so a single instance can be shared.
+ */
+public class JwtVerifier {
+
+  private final JwtParser parser;
+
+  public JwtVerifier(String secret) {
+    this.parser = Jwts.parserBuilder()
+        .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.ISO_8859_1)))
+        .build();
+  }
+
+  public VerifiedToken verify(String token) throws JwtException {
+    Claims claims = parser.parseClaimsJws(token).getBody();
+    Long epoch = claims.get("epoch", Long.class);
+    return new VerifiedToken(
+        Long.valueOf(claims.getSubject()),
+        claims.get("username", String.class),
+        claims.getId(),
+        toInstant(claims.getIssuedAt()),
+        toInstant(claims.getExpiration()),
+        epoch != null ? epoch : 0
+    );
+  }
+
+  private static Instant toInstant(Date date) {
+    return date != null ? date.toInstant() : null;
+  }
+}
@@ -0,0 +1,48 @@
+package com.commerce.common.security;
+
+import com.commerce.common.serviceinvocation.AuthClient;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a {@link RevocationRegistry} in sync with auth-service by polling its revocation feed.
+ * A failed poll is logged and retried on the next tick; tokens keep being verified locally meanwhile.
+ */
+@Slf4j
+public class RevocationFeedPoller implements AutoCloseable {
+
+  private final AuthClient authClient;
+  private final RevocationRegistry registry;
+  private final long intervalMillis;
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "revocation-feed-poller");
+    t.setDaemon(true);
+    return t;
+  });
+
+  public RevocationFeedPoller(AuthClient authClient, RevocationRegistry registry, long intervalMillis) {
+    this.authClient = authClient;
+    this.registry = registry;
+    this.intervalMillis = intervalMillis;
+  }
+
+  public void start() {
+    scheduler.scheduleWithFixedDelay(this::poll, 0, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  void poll() {
+    try {
+      registry.apply(authClient.revocations(registry.cursor(), registry.source()));
+    } catch (Exception e) {
+      log.warn("Could not refresh token revocations from auth-service: {}", e.getMessage());
+    }
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+}
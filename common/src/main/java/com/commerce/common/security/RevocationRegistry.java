@@ -0,0 +1,71 @@
+package com.commerce.common.security;
+
+import com.commerce.common.dto.RevocationFeedDTO;
+import com.commerce.common.dto.RevokedTokenDTO;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of the auth-service revocation feed. Entries are dropped once the
+ * revoked token would have expired anyway, so the maps only hold live revocations.
+ */
+public class RevocationRegistry {
+
+  private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+  // user id -> lowest token epoch still accepted, for users who logged out everywhere
+  private final Map<Long, EpochRevocation> epochs = new ConcurrentHashMap<>();
+  private final Clock clock;
+  private volatile String source;
+  private volatile long cursor;
+
+  public RevocationRegistry() {
+    this(Clock.systemUTC());
+  }
+
+  public RevocationRegistry(Clock clock) {
+    this.clock = clock;
+  }
+
+  public boolean isRevoked(VerifiedToken token) {
+    if (token.tokenId() != null && revoked.containsKey(token.tokenId())) {
+      return true;
+    }
+    EpochRevocation epoch = epochs.get(token.userId());
+    return epoch != null && token.epoch() < epoch.epoch();
+  }
+
+  public long cursor() {
+    return cursor;
+  }
+
+  public String source() {
+    return source;
+  }
+
+  public synchronized void apply(RevocationFeedDTO feed) {
+    source = feed.getSource();
+    if (feed.getRevoked() != null) {
+      for (RevokedTokenDTO r : feed.getRevoked()) {
+        if (r.getUserId() != null) {
+          epochs.merge(r.getUserId(), new EpochRevocation(r.getEpoch(), r.getExpiresAt().toEpochMilli()),
+              (a, b) -> a.epoch() >= b.epoch() ? a : b);
+        } else {
+          revoked.put(r.getTokenId(), r.getExpiresAt().toEpochMilli());
+        }
+      }
+    }
+    cursor = feed.getCursor();
+    long now = clock.millis();
+    revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    epochs.values().removeIf(epoch -> epoch.expiresAt() <= now);
+  }
+
+  public int size() {
+    return revoked.size() + epochs.size();
+  }
+
+  private record EpochRevocation(long epoch, long expiresAt) {
+  }
+}
@@ -0,0 +1,16 @@
+package com.commerce.common.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked.
+ */
+public record VerifiedToken(
+    Long userId,
+    String username,
+    String tokenId,
+    Instant issuedAt,
+    Instant expiresAt,
+    long epoch
+) {
+}
@@ -1,18 +1,38 @@
 package com.commerce.common.serviceinvocation;
 
+import com.commerce.common.dto.IdsDTO;
+import com.commerce.common.dto.RevocationFeedDTO;
+import com.commerce.common.dto.TokenBatchDTO;
+import com.commerce.common.dto.TokenValidationDTO;
 import com.commerce.common.dto.UserRequestDTO;
 import com.commerce.common.dto.UserResponseDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "auth-service", url = "${auth.service.url:}")
 public interface AuthClient {
     @GetMapping("/api/auth/validate")
     UserResponseDTO validate(@RequestHeader("Authorization") String bearerToken);
 
-    //    @GetMapping("/api/by-username/{username}")
-    @GetMapping("/by-username/{username}")
+    @PostMapping("/api/auth/validate-batch")
+    List<TokenValidationDTO> validateBatch(@RequestBody TokenBatchDTO tokens);
+
+    @GetMapping("/api/auth/revocations")
+    RevocationFeedDTO revocations(@RequestParam("since") long since, @RequestParam(value = "source", required = false) String source);
+
+    @GetMapping("/api/auth/by-username/{username}")
     UserRequestDTO getByUsername(@PathVariable String username, @RequestHeader("Authorization") String bearerToken);
+
+    /**
+     * Public profiles of up to 1000 users; unknown ids are left out. Prefer {@link CachingUserLookup}.
+     */
+    @PostMapping("/api/auth/users/by-ids")
+    List<UserResponseDTO> getByIds(@RequestBody IdsDTO ids, @RequestHeader("Authorization") String bearerToken);
 }
@@ -0,0 +1,61 @@
+package com.commerce.common.serviceinvocation;
+
+import com.commerce.common.dto.IdsDTO;
+import com.commerce.common.dto.UserResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Bounded near-cache in front of {@link AuthClient#getByIds}: ids already seen are answered locally,
+ * the rest are fetched together in as few calls as the endpoint's batch limit allows.
+ * Profiles can be up to {@code ttl} stale.
+ */
+public class CachingUserLookup {
+
+  public static final int MAX_IDS_PER_CALL = 1000;
+
+  private final AuthClient authClient;
+  private final Cache<Long, UserResponseDTO> cache;
+
+  public CachingUserLookup(AuthClient authClient, long maxSize, Duration ttl) {
+    this.authClient = authClient;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .build();
+  }
+
+  /**
+   * Profiles by id; null ids and ids auth-service doesn't know are missing from the result.
+   */
+  public Map<Long, UserResponseDTO> getByIds(Collection<Long> ids, String bearerToken) {
+    // the cache rejects null keys
+    List<Long> present = ids.stream().filter(Objects::nonNull).toList();
+    return cache.getAll(present, missing -> fetch(missing, bearerToken));
+  }
+
+  public void evict(Long id) {
+    cache.invalidate(id);
+  }
+
+  private Map<Long, UserResponseDTO> fetch(Set<? extends Long> ids, String bearerToken) {
+    List<Long> pending = new ArrayList<>(ids);
+    Map<Long, UserResponseDTO> fetched = new HashMap<>(pending.size());
+    for (int from = 0; from < pending.size(); from += MAX_IDS_PER_CALL) {
+      List<Long> chunk = pending.subList(from, Math.min(from + MAX_IDS_PER_CALL, pending.size()));
+      for (UserResponseDTO user : authClient.getByIds(IdsDTO.builder().ids(new ArrayList<>(chunk)).build(), bearerToken)) {
+        fetched.put(user.getId(), user);
+      }
+    }
+    return fetched;
+  }
+}
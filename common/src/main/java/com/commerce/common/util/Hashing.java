@@ -0,0 +1,24 @@
+package com.commerce.common.util;
+
+import java.nio.charset.StandardCharsets;
+
+final class Hashing {
+
+  private Hashing() {
+  }
+
+  // 64-bit FNV-1a followed by a murmur3 finalizer
+  static long hash64(String key) {
+    long h = 0xcbf29ce484222325L;
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b;
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
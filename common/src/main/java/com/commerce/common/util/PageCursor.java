@@ -0,0 +1,57 @@
+package com.commerce.common.util;
+
+import com.commerce.common.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque cursor tokens for keyset pagination: the sort key values of the last row of a page,
+ * base64url-encoded so clients treat them as a token rather than something to construct.
+ */
+public final class PageCursor {
+
+  private static final char SEPARATOR = '\n';
+
+  private PageCursor() {
+  }
+
+  public static String encode(Object... keys) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < keys.length; i++) {
+      if (i > 0) {
+        sb.append(SEPARATOR);
+      }
+      sb.append(keys[i]);
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns the key values of {@code cursor}, or throws {@link ValidationException} if it is not
+   * a cursor with {@code expectedKeys} values. The last value may contain anything, so free text
+   * such as a name belongs at the end.
+   */
+  public static List<String> decode(String cursor, int expectedKeys) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      List<String> keys = Arrays.asList(decoded.split(String.valueOf(SEPARATOR), expectedKeys));
+      if (keys.size() != expectedKeys) {
+        throw new ValidationException("Invalid cursor");
+      }
+      return keys;
+    } catch (IllegalArgumentException e) {
+      throw new ValidationException("Invalid cursor");
+    }
+  }
+
+  public static long decodeId(String cursor) {
+    try {
+      return Long.parseLong(decode(cursor, 1).get(0));
+    } catch (NumberFormatException e) {
+      throw new ValidationException("Invalid cursor");
+    }
+  }
+}
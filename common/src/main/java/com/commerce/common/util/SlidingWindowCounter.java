@@ -0,0 +1,73 @@
+package com.commerce.common.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Exact per-key event counts over a sliding window.
+ * <p>
+ * Every key has its own count, so events for one key never raise the count of another, however many
+ * keys are seen. Memory is capped at {@code maxKeys} entries: beyond that the least useful keys are
+ * evicted and start again from zero, and keys are dropped two windows after their last event. The
+ * window slides by weighting the previous fixed window by the part of it that still overlaps the
+ * sliding one.
+ */
+public class SlidingWindowCounter {
+
+  private final long windowMillis;
+  private final Cache<String, Counts> counts;
+
+  public SlidingWindowCounter(long windowMillis, long maxKeys) {
+    this.windowMillis = windowMillis;
+    this.counts = Caffeine.newBuilder()
+        .maximumSize(maxKeys)
+        // an event counts until the end of the window after the one it happened in
+        .expireAfterWrite(Duration.ofMillis(2 * windowMillis))
+        .build();
+  }
+
+  /**
+   * Counts one event for {@code key} and returns the count including it.
+   */
+  public double increment(String key, long nowMillis) {
+    long index = Math.floorDiv(nowMillis, windowMillis);
+    Counts updated = counts.asMap().compute(key, (k, c) -> Counts.roll(c, index).plusOne());
+    return updated.estimate(previousWeight(nowMillis));
+  }
+
+  public double estimate(String key, long nowMillis) {
+    Counts c = counts.getIfPresent(key);
+    if (c == null) {
+      return 0;
+    }
+    return Counts.roll(c, Math.floorDiv(nowMillis, windowMillis)).estimate(previousWeight(nowMillis));
+  }
+
+  private double previousWeight(long nowMillis) {
+    return 1.0 - (double) Math.floorMod(nowMillis, windowMillis) / windowMillis;
+  }
+
+  // events of one key in the fixed window {@code index} and the one before it
+  private record Counts(long index, int current, int previous) {
+
+    static Counts roll(Counts c, long index) {
+      if (c == null || c.index < index - 1) {
+        return new Counts(index, 0, 0);
+      }
+      if (c.index == index - 1) {
+        return new Counts(index, 0, c.current);
+      }
+      return c;
+    }
+
+    Counts plusOne() {
+      return new Counts(index, current + 1, previous);
+    }
+
+    double estimate(double previousWeight) {
+      return current + previous * previousWeight;
+    }
+  }
+}
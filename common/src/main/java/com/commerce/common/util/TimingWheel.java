@@ -0,0 +1,114 @@
+package com.commerce.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for expiring keys at a deadline.
+ * <p>
+ * Level 0 has {@value #WHEEL_SIZE} slots of one tick each, every higher level covers
+ * {@value #WHEEL_SIZE} times the span of the level below. Scheduling is O(1) and advancing
+ * the clock only touches slots that are due, so expiry never needs to scan all live entries.
+ * Entries on a higher level are cascaded down once their slot becomes current.
+ * <p>
+ * There is no cancel: callers check on expiry whether the key is still relevant.
+ */
+public class TimingWheel<K> {
+
+  private static final int WHEEL_BITS = 6;
+  private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+  private final long tickMillis;
+  private final List<List<Entry<K>>[]> levels = new ArrayList<>();
+  private long currentTick;
+  private int size;
+
+  public TimingWheel(long tickMillis, long startMillis) {
+    this.tickMillis = tickMillis;
+    this.currentTick = startMillis / tickMillis;
+  }
+
+  /**
+   * Schedules {@code key} to be handed to {@link #advance} once {@code deadlineMillis} has passed.
+   * Returns false if the deadline is already due, in which case nothing is scheduled.
+   */
+  public synchronized boolean schedule(K key, long deadlineMillis) {
+    long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+    if (deadlineTick <= currentTick) {
+      return false;
+    }
+    place(new Entry<>(key, deadlineTick));
+    size++;
+    return true;
+  }
+
+  /**
+   * Moves the clock to {@code nowMillis} and passes every key whose deadline has passed to {@code expired}.
+   */
+  public synchronized void advance(long nowMillis, Consumer<K> expired) {
+    long targetTick = nowMillis / tickMillis;
+    while (currentTick < targetTick) {
+      if (size == 0) {
+        currentTick = targetTick;
+        return;
+      }
+      currentTick++;
+      cascade();
+      List<Entry<K>>[] level0 = levels.get(0);
+      int slot = (int) (currentTick & WHEEL_MASK);
+      List<Entry<K>> due = level0[slot];
+      if (due != null) {
+        level0[slot] = null;
+        size -= due.size();
+        due.forEach(e -> expired.accept(e.key()));
+      }
+    }
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  // re-distributes higher level slots that just became current, highest level first
+  private void cascade() {
+    for (int level = levels.size() - 1; level > 0; level--) {
+      long mask = (1L << (level * WHEEL_BITS)) - 1;
+      if ((currentTick & mask) != 0) {
+        continue;
+      }
+      List<Entry<K>>[] wheel = levels.get(level);
+      int slot = (int) ((currentTick >>> (level * WHEEL_BITS)) & WHEEL_MASK);
+      List<Entry<K>> entries = wheel[slot];
+      if (entries != null) {
+        wheel[slot] = null;
+        entries.forEach(this::place);
+      }
+    }
+  }
+
+  private void place(Entry<K> entry) {
+    int level = 0;
+    while ((entry.deadlineTick() >>> (level * WHEEL_BITS)) - (currentTick >>> (level * WHEEL_BITS)) >= WHEEL_SIZE) {
+      level++;
+    }
+    List<Entry<K>>[] wheel = level(level);
+    int slot = (int) ((entry.deadlineTick() >>> (level * WHEEL_BITS)) & WHEEL_MASK);
+    if (wheel[slot] == null) {
+      wheel[slot] = new ArrayList<>();
+    }
+    wheel[slot].add(entry);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Entry<K>>[] level(int level) {
+    while (levels.size() <= level) {
+      levels.add(new List[WHEEL_SIZE]);
+    }
+    return levels.get(level);
+  }
+
+  private record Entry<K>(K key, long deadlineTick) {
+  }
+}
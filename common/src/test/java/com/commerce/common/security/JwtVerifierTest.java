@@ -0,0 +1,115 @@
+package com.commerce.common.security;
+
+import com.commerce.common.dto.RevocationFeedDTO;
+import com.commerce.common.dto.RevokedTokenDTO;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtVerifierTest {
+
+    private static final String SECRET = "ChangeThisSecretToAStrongOne1234";
+
+    private final JwtVerifier verifier = new JwtVerifier(SECRET);
+
+    private static String token(String secret, String jti, Instant expiry) {
+        return Jwts.builder()
+                .setId(jti)
+                .setSubject("42")
+                .claim("username", "testuser")
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(expiry))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.ISO_8859_1)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Test
+    void verify_ValidToken() {
+        // Act
+        VerifiedToken token = verifier.verify(token(SECRET, "jti-1", Instant.now().plusSeconds(60)));
+
+        // Assert
+        assertEquals(42L, token.userId());
+        assertEquals("testuser", token.username());
+        assertEquals("jti-1", token.tokenId());
+    }
+
+    @Test
+    void verify_ExpiredToken() {
+        String expired = token(SECRET, "jti-1", Instant.now().minusSeconds(60));
+
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(expired));
+    }
+
+    @Test
+    void verify_WrongSignature() {
+        String forged = token("AnotherSecretThatIsLongEnough123", "jti-1", Instant.now().plusSeconds(60));
+
+        assertThrows(JwtException.class, () -> verifier.verify(forged));
+    }
+
+    @Test
+    void revocationRegistry_AppliesFeed() {
+        // Arrange
+        RevocationRegistry registry = new RevocationRegistry();
+        VerifiedToken revoked = verifier.verify(token(SECRET, "jti-1", Instant.now().plusSeconds(60)));
+        VerifiedToken active = verifier.verify(token(SECRET, "jti-2", Instant.now().plusSeconds(60)));
+
+        // Act
+        registry.apply(RevocationFeedDTO.builder()
+                .source("auth-1")
+                .cursor(7)
+                .revoked(List.of(
+                        RevokedTokenDTO.builder().tokenId("jti-1").expiresAt(Instant.now().plusSeconds(60)).build(),
+                        RevokedTokenDTO.builder().tokenId("jti-old").expiresAt(Instant.now().minusSeconds(1)).build()))
+                .build());
+
+        // Assert
+        assertTrue(registry.isRevoked(revoked));
+        assertFalse(registry.isRevoked(active));
+        assertEquals(1, registry.size());
+        assertEquals(7, registry.cursor());
+        assertEquals("auth-1", registry.source());
+    }
+
+    @Test
+    void revocationRegistry_RevokesTokensBelowUserEpoch() {
+        // Arrange
+        RevocationRegistry registry = new RevocationRegistry();
+        VerifiedToken before = verifier.verify(token(SECRET, "jti-1", Instant.now().plusSeconds(60)));
+        VerifiedToken after = verifier.verify(Jwts.builder()
+                .setId("jti-2")
+                .setSubject("42")
+                .claim("epoch", 1)
+                .setExpiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.ISO_8859_1)), SignatureAlgorithm.HS256)
+                .compact());
+
+        // Act
+        registry.apply(RevocationFeedDTO.builder()
+                .source("auth-1")
+                .cursor(1)
+                .revoked(List.of(RevokedTokenDTO.builder()
+                        .userId(42L)
+                        .epoch(1L)
+                        .expiresAt(Instant.now().plusSeconds(60))
+                        .build()))
+                .build());
+
+        // Assert
+        assertEquals(0, before.epoch());
+        assertEquals(1, after.epoch());
+        assertTrue(registry.isRevoked(before));
+        assertFalse(registry.isRevoked(after));
+    }
+}
@@ -0,0 +1,111 @@
+package com.commerce.common.security.benchmark;
+
+import com.commerce.common.dto.UserResponseDTO;
+import com.commerce.common.security.JwtVerifier;
+import com.commerce.common.security.RevocationRegistry;
+import com.commerce.common.security.VerifiedToken;
+import com.commerce.common.serviceinvocation.AuthClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token in a downstream service:
+ * local signature/expiry check plus revocation lookup, versus the Feign call to /api/auth/validate.
+ * The Feign side talks to an in-process stub that answers without touching a database,
+ * so it is a lower bound for the real round trip to auth-service.
+ * <p>
+ * Run with: {@code java -cp <test classpath> org.openjdk.jmh.Main TokenAuthenticationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class TokenAuthenticationBenchmark {
+
+  private static final String SECRET = "ChangeThisSecretToAStrongOne1234";
+  private static final byte[] USER_JSON =
+      "{\"id\":42,\"firstName\":\"Test\",\"lastName\":\"User\",\"email\":\"test@example.com\"}"
+          .getBytes(StandardCharsets.UTF_8);
+
+  private HttpServer server;
+  private ExecutorService serverThreads;
+  private AuthClient authClient;
+  private JwtVerifier verifier;
+  private RevocationRegistry revocations;
+  private String token;
+
+  @Setup
+  public void setUp() throws Exception {
+    serverThreads = Executors.newFixedThreadPool(4);
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/api/auth/validate", exchange -> {
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, USER_JSON.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(USER_JSON);
+      }
+    });
+    server.setExecutor(serverThreads);
+    server.start();
+
+    ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    authClient = Feign.builder()
+        .contract(new SpringMvcContract())
+        .decoder((response, type) -> mapper.readValue(response.body().asInputStream(), mapper.constructType(type)))
+        .target(AuthClient.class, "http://127.0.0.1:" + server.getAddress().getPort());
+
+    verifier = new JwtVerifier(SECRET);
+    revocations = new RevocationRegistry();
+    token = Jwts.builder()
+        .setId(UUID.randomUUID().toString())
+        .setSubject("42")
+        .claim("username", "testuser")
+        .setIssuedAt(new Date())
+        .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+        .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.ISO_8859_1)), SignatureAlgorithm.HS256)
+        .compact();
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.stop(0);
+    serverThreads.shutdownNow();
+  }
+
+  @Benchmark
+  public boolean localVerification() {
+    VerifiedToken verified = verifier.verify(token);
+    return revocations.isRevoked(verified);
+  }
+
+  @Benchmark
+  public UserResponseDTO feignValidate() {
+    return authClient.validate("Bearer " + token);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(TokenAuthenticationBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
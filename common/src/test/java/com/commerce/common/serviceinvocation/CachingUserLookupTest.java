@@ -0,0 +1,86 @@
+package com.commerce.common.serviceinvocation;
+
+import com.commerce.common.dto.IdsDTO;
+import com.commerce.common.dto.UserResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CachingUserLookupTest {
+
+    private static final String BEARER = "Bearer token";
+
+    private final AuthClient authClient = mock(AuthClient.class);
+    private final CachingUserLookup lookup = new CachingUserLookup(authClient, 10_000, Duration.ofMinutes(5));
+
+    private static UserResponseDTO user(long id) {
+        return UserResponseDTO.builder().id(id).username("user" + id).build();
+    }
+
+    @Test
+    void getByIds_FetchesOnlyMisses() {
+        // Arrange
+        when(authClient.getByIds(any(), eq(BEARER))).thenAnswer(invocation -> {
+            IdsDTO ids = invocation.getArgument(0);
+            return ids.getIds().stream().map(CachingUserLookupTest::user).toList();
+        });
+        lookup.getByIds(List.of(1L, 2L), BEARER);
+
+        // Act
+        Map<Long, UserResponseDTO> users = lookup.getByIds(List.of(1L, 2L, 3L), BEARER);
+
+        // Assert
+        assertEquals(3, users.size());
+        assertEquals("user3", users.get(3L).getUsername());
+        verify(authClient).getByIds(IdsDTO.builder().ids(List.of(1L, 2L)).build(), BEARER);
+        verify(authClient).getByIds(IdsDTO.builder().ids(List.of(3L)).build(), BEARER);
+        verifyNoMoreInteractions(authClient);
+    }
+
+    @Test
+    void getByIds_LeavesOutUnknownUsers() {
+        // Arrange
+        when(authClient.getByIds(any(), eq(BEARER))).thenReturn(List.of(user(1L)));
+
+        // Act
+        Map<Long, UserResponseDTO> users = lookup.getByIds(List.of(1L, 99L), BEARER);
+
+        // Assert
+        assertEquals(Map.of(1L, user(1L)), users);
+    }
+
+    @Test
+    void getByIds_SkipsNullIds() {
+        // Arrange
+        when(authClient.getByIds(any(), eq(BEARER))).thenReturn(List.of(user(1L)));
+
+        // Act
+        Map<Long, UserResponseDTO> users = lookup.getByIds(Arrays.asList(1L, null), BEARER);
+
+        // Assert
+        assertEquals(Map.of(1L, user(1L)), users);
+        verify(authClient).getByIds(IdsDTO.builder().ids(List.of(1L)).build(), BEARER);
+    }
+
+    @Test
+    void getByIds_SplitsLargeLookupsIntoBatches() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(authClient.getByIds(any(), eq(BEARER))).thenReturn(List.of());
+
+        // Act
+        lookup.getByIds(ids, BEARER);
+
+        // Assert
+        verify(authClient, times(3)).getByIds(any(), eq(BEARER));
+    }
+}
@@ -0,0 +1,56 @@
+package com.commerce.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    @Test
+    void increment_CountsPerKey() {
+        // Arrange
+        SlidingWindowCounter counter = new SlidingWindowCounter(60_000, 1024);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            counter.increment("alice", 1_000);
+        }
+        counter.increment("bob", 1_000);
+
+        // Assert
+        assertEquals(5.0, counter.estimate("alice", 2_000));
+        assertEquals(1.0, counter.estimate("bob", 2_000));
+        assertEquals(0.0, counter.estimate("carol", 2_000));
+    }
+
+    @Test
+    void estimate_PreviousWindowFadesOut() {
+        // Arrange
+        SlidingWindowCounter counter = new SlidingWindowCounter(60_000, 1024);
+        for (int i = 0; i < 10; i++) {
+            counter.increment("alice", 59_000);
+        }
+
+        // Act & Assert: a quarter into the next window, three quarters of the old one still overlap
+        assertEquals(7.5, counter.estimate("alice", 75_000), 1e-9);
+        assertEquals(0.0, counter.estimate("alice", 125_000));
+    }
+
+    @Test
+    void increment_SprayOfDistinctKeysLeavesOtherKeysAlone() {
+        // Arrange: a credential-stuffing spray, one failure each for many usernames
+        SlidingWindowCounter counter = new SlidingWindowCounter(60_000, 100_000);
+        for (int i = 0; i < 50_000; i++) {
+            counter.increment("user-" + i, 0);
+        }
+
+        // Act
+        counter.increment("target", 0);
+        counter.increment("target", 0);
+
+        // Assert
+        assertEquals(0.0, counter.estimate("alice", 0));
+        assertEquals(2.0, counter.estimate("target", 0));
+        assertEquals(1.0, counter.estimate("user-49999", 0));
+    }
+}
@@ -0,0 +1,56 @@
+package com.commerce.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void advance_ExpiresOnlyDueKeys() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 0);
+        wheel.schedule("soon", 5_000);
+        wheel.schedule("later", 10_000);
+        List<String> expired = new ArrayList<>();
+
+        // Act
+        wheel.advance(6_000, expired::add);
+
+        // Assert
+        assertEquals(List.of("soon"), expired);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void advance_CascadesFromHigherLevels() {
+        // Arrange: deadlines well past the 64 ticks covered by the first level
+        TimingWheel<Long> wheel = new TimingWheel<>(1000, 0);
+        long[] deadlines = {65_000, 4_096_000, 4_200_500, 300_000_000};
+        for (long deadline : deadlines) {
+            assertTrue(wheel.schedule(deadline, deadline));
+        }
+        List<Long> expired = new ArrayList<>();
+
+        // Act & Assert
+        for (long deadline : deadlines) {
+            long tickBefore = (deadline + 999) / 1000 * 1000 - 1000;
+            wheel.advance(tickBefore, expired::add);
+            assertFalse(expired.contains(deadline), "expired early: " + deadline);
+            wheel.advance(deadline + 999, expired::add);
+            assertTrue(expired.contains(deadline), "not expired: " + deadline);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_PastDeadlineIsRejected() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 10_000);
+
+        assertFalse(wheel.schedule("stale", 9_000));
+        assertEquals(0, wheel.size());
+    }
+}
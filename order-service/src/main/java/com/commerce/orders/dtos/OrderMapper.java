@@ -0,0 +1,31 @@
+package com.commerce.orders.dtos;
+
+import com.commerce.orders.models.OrderDAO;
+import com.commerce.orders.models.OrderItemDAO;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Order entity/DTO mappings, generated at compile time by MapStruct into plain getter and setter calls.
+ * <p>
+ * A DTO property the entity cannot fill fails the build unless it is ignored here.
+ */
+@Mapper(componentModel = "spring", builder = @Builder(disableBuilder = true),
+    unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface OrderMapper {
+
+  OrderResponseDTO toResponse(OrderDAO orderDAO);
+
+  // the price is quoted by the product service, orders don't store it
+  @Mapping(target = "price", ignore = true)
+  OrderItemResponseDTO toResponse(OrderItemDAO orderItemDAO);
+
+  /**
+   * A new cart item; {@link OrderDAO#addOrderItem} links it to its order.
+   */
+  @BeanMapping(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+  OrderItemDAO toEntity(OrderItemRequestDTO dto);
+}
@@ -1,10 +1,10 @@
 package com.commerce.orders.service.impl;
 
 import com.commerce.common.config.utils.AuthenticationUtils;
-import com.commerce.common.dto.IdsDTO;
-import com.commerce.common.dto.ProductResponseDTO;
+import com.commerce.common.dto.StockReservationRequestDTO;
 import com.commerce.common.dto.StockUpdateBatchDTO;
 import com.commerce.orders.dtos.OrderItemRequestDTO;
+import com.commerce.orders.dtos.OrderMapper;
 import com.commerce.orders.dtos.OrderResponseDTO;
 import com.commerce.orders.enums.OrderStatus;
 import com.commerce.orders.models.OrderDAO;
@@ -13,16 +13,14 @@ import com.commerce.orders.repository.OrderItemsRepository;
 import com.commerce.orders.repository.OrderRepository;
 import com.commerce.orders.service.OrderService;
 import com.commerce.orders.serviceinvocation.ProductClient;
+import feign.FeignException;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.service.spi.ServiceException;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,14 +30,14 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final OrderItemsRepository orderItemsRepository;
     private final ProductClient productClient;
-    private final ModelMapper modelMapper;
+    private final OrderMapper orderMapper;
     private final AuthenticationUtils authUtils;
 
-    public OrderServiceImpl(OrderRepository r, OrderItemsRepository orderItemsRepository, ProductClient productClient, ModelMapper modelMapper, AuthenticationUtils authUtils) {
+    public OrderServiceImpl(OrderRepository r, OrderItemsRepository orderItemsRepository, ProductClient productClient, OrderMapper orderMapper, AuthenticationUtils authUtils) {
         this.orderRepository = r;
         this.orderItemsRepository = orderItemsRepository;
         this.productClient = productClient;
-        this.modelMapper = modelMapper;
+        this.orderMapper = orderMapper;
         this.authUtils = authUtils;
     }
 
@@ -58,11 +56,7 @@ public class OrderServiceImpl implements OrderService {
                     orderItemRequestDTO.productId(), existingItem.getQuantity());
         } else {
             // Add new item to cart
-            OrderItemDAO newItem = OrderItemDAO.builder()
-                    .orderDAO(cart)
-                    .productId(orderItemRequestDTO.productId())
-                    .quantity(orderItemRequestDTO.quantity())
-                    .build();
+            OrderItemDAO newItem = orderMapper.toEntity(orderItemRequestDTO);
             cart.addOrderItem(newItem);
             log.info("Added new product {} to cart with quantity {}",
                     orderItemRequestDTO.productId(), orderItemRequestDTO.quantity());
@@ -96,8 +90,15 @@ public class OrderServiceImpl implements OrderService {
             throw new ServiceException("Order cannot be checked out. Current status: " + order.getStatus());
         }
 
-        loadAndValidateProductAvailability(bearerToken, order);
-        updateStockQuantity(bearerToken, order);
+        reserveStock(bearerToken, order);
+        // a payment step goes between reserving and committing; until there is one the order is paid right away
+        try {
+            productClient.commitReservation(orderId, bearerToken);
+        } catch (FeignException e) {
+            log.error("Failed to commit stock reservation for order {}", orderId, e);
+            releaseStock(bearerToken, orderId);
+            throw new ServiceException("Checkout failed, stock could not be committed: " + e.getMessage());
+        }
         order.setStatus(OrderStatus.PAID);
         log.info("Order {} checked out successfully with {} items", orderId, order.getOrderItems().size());
         //return orderRepository.save(order);
@@ -109,63 +110,33 @@ public class OrderServiceImpl implements OrderService {
         return response;
     }
 
-    private void loadAndValidateProductAvailability(String bearerToken, OrderDAO order) {
-        // Collect all product IDs from the order
-        List<Long> productIds = order.getOrderItems().stream()
-                .map(OrderItemDAO::getProductId)
-                .toList();
-
-        // Make a single batch request to get all products
-        IdsDTO idsDTO = IdsDTO.builder()
-                .ids(productIds)
-                .build();
-
-        // This should return List<ProductResponseDto> based on the controller implementation
-        var products = productClient.getByProductIds(idsDTO, bearerToken);
-
-        // Create a map of product ID to Product for easy access
-        Map<Long, ProductResponseDTO> productMap = products.stream()
-                .collect(Collectors.toMap(ProductResponseDTO::getId, product -> product));
-        // Validate stock for all items using the product map
-        List<String> validationErrors = new ArrayList<>();
-
-        for (OrderItemDAO item : order.getOrderItems()) {
-            ProductResponseDTO product = productMap.get(item.getProductId());
-            if (product == null) {
-                String errorMsg = "Product not found for ID: " + item.getProductId();
-                log.error(errorMsg);
-                validationErrors.add(errorMsg);
-                continue; // Skip stock validation if product doesn't exist
-            }
-
-            if (product.getStock() < item.getQuantity()) {
-                String errorMsg = "Insufficient stock for product ID: " + product.getName() +
-                        " (requested: " + item.getQuantity() + ", available: " + product.getStock() + ")";
-                validationErrors.add(errorMsg);
-            }
-        }
-
-// Throw all validation errors at once
-        if (!validationErrors.isEmpty()) {
-            String combinedErrors = String.join("; ", validationErrors);
-            log.error(combinedErrors);
-            throw new ServiceException("Validation failed: " + combinedErrors);
-        }
-    }
-
-    private void updateStockQuantity(String bearerToken, OrderDAO order) {
-        // Decrease stock for all items in a single batch request
-        List<StockUpdateBatchDTO.StockUpdateItem> stockUpdates = order.getOrderItems().stream()
+    // checks and takes the stock in one step on product-service, nothing can sell it in between
+    private void reserveStock(String bearerToken, OrderDAO order) {
+        List<StockUpdateBatchDTO.StockUpdateItem> items = order.getOrderItems().stream()
                 .map(item -> StockUpdateBatchDTO.StockUpdateItem.builder()
                         .productId(item.getProductId())
                         .quantity(item.getQuantity())
                         .build())
                 .collect(Collectors.toList());
-        StockUpdateBatchDTO batchDTO = StockUpdateBatchDTO.builder()
-                .items(stockUpdates)
+        StockReservationRequestDTO request = StockReservationRequestDTO.builder()
+                .orderId(order.getId())
+                .items(items)
                 .build();
+        try {
+            productClient.reserveStock(request, bearerToken);
+        } catch (FeignException e) {
+            log.error("Stock reservation failed for order {}: {}", order.getId(), e.getMessage());
+            throw new ServiceException("Validation failed: " + e.getMessage());
+        }
+    }
 
-        productClient.batchDecreaseStock(batchDTO, bearerToken);
+    private void releaseStock(String bearerToken, Long orderId) {
+        try {
+            productClient.releaseReservation(orderId, bearerToken);
+        } catch (FeignException e) {
+            // the hold still runs out on its own
+            log.error("Failed to release stock reservation for order {}", orderId, e);
+        }
     }
 
     @Transactional
@@ -189,7 +160,7 @@ public class OrderServiceImpl implements OrderService {
         return orderRepository.findAll().stream()
                 .map(orderDAO -> {
                     orderDAO.getOrderItems().size();
-                    return modelMapper.map(orderDAO, OrderResponseDTO.class);
+                    return orderMapper.toResponse(orderDAO);
                 })
                 .collect(Collectors.toList());
     }
@@ -3,6 +3,8 @@ package com.commerce.orders.serviceinvocation;
 import com.commerce.common.dto.IdsDTO;
 import com.commerce.common.dto.ProductDto;
 import com.commerce.common.dto.ProductResponseDTO;
+import com.commerce.common.dto.StockReservationDTO;
+import com.commerce.common.dto.StockReservationRequestDTO;
 import com.commerce.common.dto.StockUpdateBatchDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
@@ -27,4 +29,13 @@ public interface ProductClient {
 
     @PostMapping("/api/products/batch/decrease-stock")
     List<ProductDto> batchDecreaseStock(@RequestBody StockUpdateBatchDTO batchDTO, @RequestHeader("Authorization") String token);
+
+    @PostMapping("/api/products/reservations")
+    StockReservationDTO reserveStock(@RequestBody StockReservationRequestDTO request, @RequestHeader("Authorization") String token);
+
+    @PostMapping("/api/products/reservations/{orderId}/commit")
+    void commitReservation(@PathVariable("orderId") Long orderId, @RequestHeader("Authorization") String token);
+
+    @DeleteMapping("/api/products/reservations/{orderId}")
+    void releaseReservation(@PathVariable("orderId") Long orderId, @RequestHeader("Authorization") String token);
 }
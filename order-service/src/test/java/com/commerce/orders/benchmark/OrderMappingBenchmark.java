@@ -0,0 +1,93 @@
+package com.commerce.orders.benchmark;
+
+import com.commerce.orders.dtos.OrderMapper;
+import com.commerce.orders.dtos.OrderMapperImpl;
+import com.commerce.orders.dtos.OrderResponseDTO;
+import com.commerce.orders.enums.OrderStatus;
+import com.commerce.orders.models.OrderDAO;
+import com.commerce.orders.models.OrderItemDAO;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders mapped per second on a single thread, as OrderServiceImpl.getOrders maps them: the ModelMapper
+ * the services used to map with against the generated {@link OrderMapper}, for orders of
+ * {@code items} items.
+ * <p>
+ * Run with the GC profiler to see the bytes allocated per mapping ({@code gc.alloc.rate.norm}):
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main OrderMappingBenchmark -prof gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "10"})
+    private int items;
+
+    private ModelMapper modelMapper;
+    private OrderMapper orderMapper;
+    private OrderDAO order;
+
+    @Setup
+    public void setUp() {
+        modelMapper = configuredModelMapper();
+        orderMapper = new OrderMapperImpl();
+        order = OrderDAO.builder()
+                .id(7L)
+                .customerId(3L)
+                .status(OrderStatus.CREATED)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+        for (int i = 0; i < items; i++) {
+            order.addOrderItem(OrderItemDAO.builder()
+                    .id(100L + i)
+                    .productId(1000L + i)
+                    .quantity(i + 1)
+                    .createdAt(Instant.now())
+                    .build());
+        }
+    }
+
+    // configured as the services had it before the generated mappers replaced it
+    private static ModelMapper configuredModelMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setCollectionsMergeEnabled(false)
+                .setSkipNullEnabled(true)
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
+        return modelMapper;
+    }
+
+    @Benchmark
+    public OrderResponseDTO modelMapper() {
+        return modelMapper.map(order, OrderResponseDTO.class);
+    }
+
+    @Benchmark
+    public OrderResponseDTO generated() {
+        return orderMapper.toResponse(order);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -1,10 +1,10 @@
 package com.commerce.orders.service.impl;
 
 import com.commerce.common.config.utils.AuthenticationUtils;
-import com.commerce.common.dto.IdsDTO;
-import com.commerce.common.dto.ProductResponseDTO;
-import com.commerce.common.dto.StockUpdateBatchDTO;
+import com.commerce.common.dto.StockReservationRequestDTO;
 import com.commerce.orders.dtos.OrderItemRequestDTO;
+import com.commerce.orders.dtos.OrderMapper;
+import com.commerce.orders.dtos.OrderMapperImpl;
 import com.commerce.orders.dtos.OrderResponseDTO;
 import com.commerce.orders.enums.OrderStatus;
 import com.commerce.orders.models.OrderDAO;
@@ -12,19 +12,23 @@ import com.commerce.orders.models.OrderItemDAO;
 import com.commerce.orders.repository.OrderItemsRepository;
 import com.commerce.orders.repository.OrderRepository;
 import com.commerce.orders.serviceinvocation.ProductClient;
+import feign.FeignException;
+import feign.Request;
 import org.hibernate.service.spi.ServiceException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.ResponseEntity;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,8 +46,8 @@ class OrderServiceImplTest {
     private OrderItemsRepository orderItemsRepository;
     @Mock
     private ProductClient productClient;
-    @Mock
-    private ModelMapper modelMapper;
+    @Spy
+    private OrderMapper orderMapper = new OrderMapperImpl();
     @Mock
     private AuthenticationUtils authUtils;
     @InjectMocks
@@ -69,7 +73,7 @@ class OrderServiceImplTest {
 
         orderItemRequestDTO = new OrderItemRequestDTO(101L, 3);
 
-        when(authUtils.getCurrentUserId()).thenReturn(userId);
+        lenient().when(authUtils.getCurrentUserId()).thenReturn(userId);
     }
 
     @Test
@@ -126,14 +130,6 @@ class OrderServiceImplTest {
     void checkout_Successful() {
         // Arrange
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
-        ProductResponseDTO productResponse = ProductResponseDTO.builder()
-                .id(101L)
-                .name("Test Product")
-                .price(BigDecimal.valueOf(99.99))
-                .stock(10)
-                .build();
-        when(productClient.getByProductIds(any(IdsDTO.class), eq(bearerToken)))
-                .thenReturn(List.of(productResponse));
         when(orderRepository.save(any(OrderDAO.class))).thenReturn(testOrder);
 
         // Act
@@ -142,7 +138,12 @@ class OrderServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(OrderStatus.PAID, result.getStatus());
-        verify(productClient).batchDecreaseStock(any(StockUpdateBatchDTO.class), eq(bearerToken));
+        ArgumentCaptor<StockReservationRequestDTO> reservation = ArgumentCaptor.forClass(StockReservationRequestDTO.class);
+        verify(productClient).reserveStock(reservation.capture(), eq(bearerToken));
+        assertEquals(1L, reservation.getValue().getOrderId());
+        assertEquals(101L, reservation.getValue().getItems().get(0).getProductId());
+        assertEquals(2, reservation.getValue().getItems().get(0).getQuantity());
+        verify(productClient).commitReservation(1L, bearerToken);
     }
 
     @Test
@@ -168,18 +169,32 @@ class OrderServiceImplTest {
     void checkout_InsufficientStock() {
         // Arrange
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(productClient.reserveStock(any(StockReservationRequestDTO.class), eq(bearerToken)))
+                .thenThrow(feignError("Insufficient stock for product ID 101"));
 
-        ProductResponseDTO productResponse = ProductResponseDTO.builder()
-                .id(101L)
-                .name("Test Product")
-                .price(BigDecimal.valueOf(99.99))
-                .stock(1)
-                .build();
-        when(productClient.getByProductIds(any(IdsDTO.class), eq(bearerToken)))
-                .thenReturn(List.of(productResponse));
+        // Act & Assert
+        assertThrows(ServiceException.class, () -> orderService.checkout(1L, bearerToken));
+        verify(productClient, never()).commitReservation(any(), any());
+        verify(orderRepository, never()).save(any(OrderDAO.class));
+    }
+
+    @Test
+    void checkout_CommitFailureReleasesStock() {
+        // Arrange
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        doThrow(feignError("Stock reservation for order 1 has expired"))
+                .when(productClient).commitReservation(1L, bearerToken);
 
         // Act & Assert
         assertThrows(ServiceException.class, () -> orderService.checkout(1L, bearerToken));
+        verify(productClient).releaseReservation(1L, bearerToken);
+        assertEquals(OrderStatus.CREATED, testOrder.getStatus());
+    }
+
+    private static FeignException feignError(String message) {
+        Request request = Request.create(Request.HttpMethod.POST, "/api/products/reservations", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return new FeignException.Conflict(message, request, null, null);
     }
 
     @Test
@@ -212,16 +227,7 @@ class OrderServiceImplTest {
     @Test
     void getOrders_Successful() {
         // Arrange
-        OrderResponseDTO mockResponse = OrderResponseDTO.builder()
-                .customerId(1L)
-                .customerId(userId)
-                .status(OrderStatus.CREATED)
-                .orderItems(List.of())  // Assuming this is List<OrderItemResponseDTO>
-                .build();
-
         when(orderRepository.findAll()).thenReturn(List.of(testOrder));
-        when(modelMapper.map(testOrder, OrderResponseDTO.class))
-                .thenReturn(mockResponse);
 
         // Act
         List<OrderResponseDTO> result = orderService.getOrders();
@@ -229,7 +235,12 @@ class OrderServiceImplTest {
         // Assert
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
-        assertEquals(mockResponse, result.get(0));
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(userId, result.get(0).getCustomerId());
+        assertEquals(OrderStatus.CREATED, result.get(0).getStatus());
+        assertEquals(1, result.get(0).getOrderItems().size());
+        assertEquals(101L, result.get(0).getOrderItems().get(0).getProductId());
+        assertEquals(2, result.get(0).getOrderItems().get(0).getQuantity());
     }
 
     @Test
@@ -6,11 +6,13 @@ import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = {"com.commerce.common.serviceinvocation", "com.commerce.product"})
 @ComponentScan({"com.commerce.common.config", "com.commerce.product"})
 @EntityScan("com.commerce.product.models")
+@EnableScheduling
 @EnableDiscoveryClient //makes this services connect to the services discovery
 public class ProductServiceApplication {
     public static void main(String[] args) {
@@ -0,0 +1,14 @@
+package com.commerce.product.config;
+
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "product.import")
+@Data
+public class ProductImportProperties {
+  private int batchSize = 1000;
+  private int maxReportedErrors = 100;
+}
@@ -0,0 +1,14 @@
+package com.commerce.product.config;
+
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "product.listing")
+@Data
+public class ProductListingProperties {
+  private int defaultPageSize = 50;
+  private int maxPageSize = 500;
+}
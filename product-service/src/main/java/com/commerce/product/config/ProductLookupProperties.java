@@ -0,0 +1,15 @@
+package com.commerce.product.config;
+
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "product.lookup")
+@Data
+public class ProductLookupProperties {
+  // a power of two, so a full chunk needs no IN list padding
+  private int chunkSize = 512;
+  private int parallelism = 4;
+}
@@ -0,0 +1,16 @@
+package com.commerce.product.config;
+
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "product.reservations")
+@Data
+public class ReservationProperties {
+  private Duration defaultTtl = Duration.ofMinutes(15);
+  private Duration maxTtl = Duration.ofHours(1);
+}
@@ -0,0 +1,22 @@
+package com.commerce.product.config;
+
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "product.group-commit")
+@Data
+public class StockGroupCommitProperties {
+  private boolean enabled = false;
+  // how long the first request of a group waits for others; 0 only merges what queued up meanwhile
+  private Duration window = Duration.ofMillis(2);
+  private int maxGroupSize = 256;
+  private int queueCapacity = 10_000;
+  // longest a group transaction may run, rounded up to seconds; a batch not picked up within
+  // window + commit-timeout runs on its own
+  private Duration commitTimeout = Duration.ofSeconds(5);
+}
@@ -1,24 +1,39 @@
 package com.commerce.product.controller;
 
 import com.commerce.common.constants.OpenAPIConstants;
+import com.commerce.common.dto.CursorPageDTO;
 import com.commerce.common.dto.IdsDTO;
+import com.commerce.common.dto.ProductChangeFeedDTO;
 import com.commerce.common.dto.ProductDto;
 import com.commerce.common.dto.ProductResponseDTO;
 import com.commerce.common.dto.StockUpdateBatchDTO;
 import com.commerce.product.dtos.ProductCreateDTO;
+import com.commerce.product.dtos.ProductImportResultDTO;
 import com.commerce.product.dtos.ProductMapper;
+import com.commerce.product.dtos.ProductSearchResultDTO;
 import com.commerce.product.dtos.ProductUpdateDTO;
 import com.commerce.product.models.ProductDAO;
+import com.commerce.product.repository.ProductSummary;
+import com.commerce.product.service.ProductChangeFeed;
+import com.commerce.product.service.ProductETags;
+import com.commerce.product.service.ProductImportService;
+import com.commerce.product.service.ProductSearchService;
 import com.commerce.product.service.ProductService;
+import com.commerce.product.service.StockGroupCommitter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/products")
@@ -26,12 +41,24 @@ import java.util.List;
 @Slf4j
 @SecurityRequirement(name = OpenAPIConstants.BEARER_SECURITY_SCHEME)
 public class ProductController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final ProductService productService;
     private final ProductMapper productMapper;
+    private final ProductSearchService productSearch;
+    private final ProductImportService productImport;
+    private final ProductChangeFeed changeFeed;
+    private final StockGroupCommitter groupCommit;
 
-    public ProductController(ProductService s, ProductMapper productMapper) {
+    public ProductController(ProductService s, ProductMapper productMapper, ProductSearchService productSearch,
+                             ProductImportService productImport, ProductChangeFeed changeFeed,
+                             StockGroupCommitter groupCommit) {
         this.productService = s;
         this.productMapper = productMapper;
+        this.productSearch = productSearch;
+        this.productImport = productImport;
+        this.changeFeed = changeFeed;
+        this.groupCommit = groupCommit;
     }
 
     @Operation(
@@ -47,20 +74,82 @@ public class ProductController {
         return productService.create(productCreateDTO);
     }
 
+    @Operation(
+            summary = "Import products",
+            description = "Creates products from an NDJSON body (one product object per line) or a CSV body with a "
+                    + "name,price,stock header. Rows whose name already exists are skipped"
+    )
+    @ApiResponse(responseCode = "200", description = "Import finished, with counts and the first row errors")
+    @ApiResponse(responseCode = "403", description = "Invalid CSV header")
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public ResponseEntity<ProductImportResultDTO> importProducts(InputStream body,
+                                                                 @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+        MediaType type = MediaType.parseMediaType(contentType);
+        ProductImportService.Format format = type.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? ProductImportService.Format.NDJSON
+                : ProductImportService.Format.CSV;
+        return ResponseEntity.ok(productImport.importProducts(body, format));
+    }
+
+    @Operation(
+            summary = "Search products",
+            description = "Finds products whose name has a word starting with each word of the query, ordered by id"
+    )
+    @ApiResponse(responseCode = "200", description = "Matching products")
+    @ApiResponse(responseCode = "403", description = "Invalid query or limit")
+    @ApiResponse(responseCode = "503", description = "Search index is still loading")
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductSearchResultDTO>> search(@RequestParam String q,
+                                                               @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productSearch.search(q, limit));
+    }
+
+    @Operation(
+            summary = "Product changes",
+            description = "Products created, updated or deleted after the cursor, in the order the changes committed. "
+                    + "Poll again with the returned cursor; deleted products come with deleted set"
+    )
+    @ApiResponse(responseCode = "200", description = "Changes after the cursor, possibly none")
+    @ApiResponse(responseCode = "403", description = "Invalid cursor or page size")
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangeFeedDTO> changes(@RequestParam(required = false) String since,
+                                                        @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(changeFeed.since(since, size));
+    }
+
     @Operation(
             summary = "Get product by ID",
             description = "Retrieves a product using its ID"
     )
     @ApiResponse(responseCode = "200", description = "Product found")
+    @ApiResponse(responseCode = "304", description = "Product unchanged since the ETag in If-None-Match")
     @GetMapping("/{id}")
-    public ProductDAO get(@PathVariable Long id) {
-        return productService.find(id);
+    public ResponseEntity<ProductDAO> get(@PathVariable Long id,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // answered from version and stock alone, before the product is loaded
+        if (ifNoneMatch != null) {
+            Optional<String> current = productService.etag(id);
+            if (current.isPresent() && ProductETags.matches(ifNoneMatch, current.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current.get()).build();
+            }
+        }
+        ProductDAO product = productService.find(id);
+        return ResponseEntity.ok().eTag(ProductETags.of(product)).body(product);
     }
 
     @ApiResponse(responseCode = "200", description = "Product found")
+    @ApiResponse(responseCode = "304", description = "Products unchanged since the ETag in If-None-Match")
     /*@GetMapping("/by-ids")*/
     @PostMapping("/by-ids")  // Changed from @GetMapping
-    public ResponseEntity<List<ProductResponseDTO>> get(@RequestBody IdsDTO ids) {
+    public ResponseEntity<List<ProductResponseDTO>> get(@RequestBody IdsDTO ids,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // a read despite the POST, so a matching tag gets 304 rather than the 412 RFC 9110 has for writes
+        if (ifNoneMatch != null && ids.getIds() != null && !ids.getIds().isEmpty()) {
+            String current = productService.etag(ids.getIds());
+            if (ProductETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
         return productService.findProducts(ids);
     }
 
@@ -75,6 +164,18 @@ public class ProductController {
         return productService.update(productUpdateDTO);
     }
 
+    @Operation(
+            summary = "Delete product",
+            description = "Marks the product deleted: it leaves listings and search and can no longer be sold"
+    )
+    @ApiResponse(responseCode = "204", description = "Product deleted")
+    @ApiResponse(responseCode = "404", description = "Product not found")
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        productService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(
             summary = "Decrease product stock",
             description = "Decreases product stocks"
@@ -104,13 +205,41 @@ public class ProductController {
     }
 
     @Operation(
-            summary = "Get all products",
-            description = "Retrieves a list of all available products"
+            summary = "Enable hot mode",
+            description = "Spreads the stock of a product over several shards, so concurrent buyers stop queueing on one row"
+    )
+    @ApiResponse(responseCode = "200", description = "Hot mode enabled")
+    @ApiResponse(responseCode = "403", description = "Invalid number of shards")
+    @ApiResponse(responseCode = "404", description = "Product not found")
+    @PostMapping("/{id}/hot")
+    public ResponseEntity<ProductDto> enableHotMode(@PathVariable Long id, @RequestParam(defaultValue = "8") int shards) {
+        return ResponseEntity.ok(productMapper.toDto(productService.enableHotMode(id, shards)));
+    }
+
+    @Operation(
+            summary = "Disable hot mode",
+            description = "Moves the stock of a hot product back onto a single row"
+    )
+    @ApiResponse(responseCode = "200", description = "Hot mode disabled")
+    @ApiResponse(responseCode = "404", description = "Product not found")
+    @DeleteMapping("/{id}/hot")
+    public ResponseEntity<ProductDto> disableHotMode(@PathVariable Long id) {
+        return ResponseEntity.ok(productMapper.toDto(productService.disableHotMode(id)));
+    }
+
+    @Operation(
+            summary = "List products",
+            description = "Retrieves products page by page, sorted by id, name or price. Pass the returned nextCursor "
+                    + "with the same sort to get the following page"
     )
-    @ApiResponse(responseCode = "200", description = "List of products retrieved successfully")
+    @ApiResponse(responseCode = "200", description = "Page of products retrieved successfully")
+    @ApiResponse(responseCode = "403", description = "Invalid cursor, page size or sort")
     @GetMapping
-    public List<ProductDAO> all() {
-        return productService.findAll();
+    public ResponseEntity<CursorPageDTO<ProductSummary>> all(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sort) {
+        return ResponseEntity.ok(productService.list(cursor, size, sort));
     }
 
     @Operation(
@@ -121,7 +250,22 @@ public class ProductController {
     @ApiResponse(responseCode = "400", description = "Batch stock decrease failed")
     @PostMapping("/batch/decrease-stock")
     public ResponseEntity<Void> batchDecreaseStock(@RequestBody StockUpdateBatchDTO batchDTO) {
+        if (groupCommit.isEnabled()) {
+            groupCommit.decrease(batchDTO);
+            return ResponseEntity.ok().build();
+        }
         return productService.batchDecreaseStock(batchDTO);
     }
 
+    @Operation(
+            summary = "Batch increase product stock",
+            description = "Adds stock for multiple products in a single request, e.g. returns or a warehouse restock"
+    )
+    @ApiResponse(responseCode = "200", description = "Stock increased successfully for all products")
+    @ApiResponse(responseCode = "400", description = "Batch stock increase failed")
+    @PostMapping("/batch/increase-stock")
+    public ResponseEntity<Void> batchIncreaseStock(@RequestBody StockUpdateBatchDTO batchDTO) {
+        return productService.batchIncreaseStock(batchDTO);
+    }
+
 }
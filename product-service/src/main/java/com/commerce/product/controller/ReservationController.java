@@ -0,0 +1,64 @@
+package com.commerce.product.controller;
+
+import com.commerce.common.config.utils.AuthenticationUtils;
+import com.commerce.common.constants.OpenAPIConstants;
+import com.commerce.common.dto.StockReservationDTO;
+import com.commerce.common.dto.StockReservationRequestDTO;
+import com.commerce.product.service.StockReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/products/reservations")
+@Tag(name = "Reservation Controller", description = "APIs for holding stock while an order is paid for")
+@SecurityRequirement(name = OpenAPIConstants.BEARER_SECURITY_SCHEME)
+public class ReservationController {
+    private final StockReservationService reservationService;
+    private final AuthenticationUtils authUtils;
+
+    public ReservationController(StockReservationService reservationService, AuthenticationUtils authUtils) {
+        this.reservationService = reservationService;
+        this.authUtils = authUtils;
+    }
+
+    @Operation(
+            summary = "Reserve stock",
+            description = "Takes the items off the stock and holds them for the order until it is committed, released or the TTL runs out"
+    )
+    @ApiResponse(responseCode = "200", description = "Stock reserved")
+    @ApiResponse(responseCode = "400", description = "Insufficient stock or product not found")
+    @ApiResponse(responseCode = "403", description = "Invalid reservation request, or the order is reserved by another user")
+    @PostMapping("")
+    public ResponseEntity<StockReservationDTO> reserve(@RequestBody StockReservationRequestDTO request) {
+        return ResponseEntity.ok(reservationService.reserve(request, authUtils.getCurrentUserId()));
+    }
+
+    @Operation(
+            summary = "Commit reservation",
+            description = "Keeps the stock held for the order as sold"
+    )
+    @ApiResponse(responseCode = "200", description = "Reservation committed")
+    @ApiResponse(responseCode = "403", description = "Reserved by another user")
+    @ApiResponse(responseCode = "409", description = "No reservation, or it has expired")
+    @PostMapping("/{orderId}/commit")
+    public ResponseEntity<Void> commit(@PathVariable Long orderId) {
+        reservationService.commit(orderId, authUtils.getCurrentUserId());
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(
+            summary = "Release reservation",
+            description = "Puts the stock held for the order back"
+    )
+    @ApiResponse(responseCode = "200", description = "Reservation released")
+    @ApiResponse(responseCode = "403", description = "Reserved by another user")
+    @DeleteMapping("/{orderId}")
+    public ResponseEntity<Void> release(@PathVariable Long orderId) {
+        reservationService.release(orderId, authUtils.getCurrentUserId());
+        return ResponseEntity.ok().build();
+    }
+}
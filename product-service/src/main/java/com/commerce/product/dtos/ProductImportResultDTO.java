@@ -0,0 +1,34 @@
+package com.commerce.product.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Every non-blank data row is counted in exactly one of
+ * {@code imported}, {@code duplicates} or {@code failed}; {@code errors} lists the first failures.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResultDTO {
+    private long rows;
+    private long imported;
+    private long duplicates;
+    private long failed;
+    private List<RowError> errors;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
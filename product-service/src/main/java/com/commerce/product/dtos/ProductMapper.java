@@ -1,27 +1,41 @@
 package com.commerce.product.dtos;
 
 import com.commerce.common.dto.ProductDto;
+import com.commerce.common.dto.ProductResponseDTO;
 import com.commerce.product.models.ProductDAO;
-import org.springframework.stereotype.Component;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
 
-@Component
-public class ProductMapper {
-  public ProductDto toDto(ProductDAO productDAO) {
-    return ProductDto.builder()
-        .id(productDAO.getId())
-        .name(productDAO.getName())
-        .price(productDAO.getPrice())
-        .stock(productDAO.getStock())
-        .build();
-  }
-  
-  public ProductDAO toEntity(ProductDto dto) {
-    return ProductDAO.builder()
-        .id(dto.getId())
-        .name(dto.getName())
-        .price(dto.getPrice())
-        .stock(dto.getStock())
-        // Other fields
-        .build();
-  }
+/**
+ * Product entity/DTO mappings, generated at compile time by MapStruct into plain getter and setter calls.
+ * <p>
+ * A DTO property the entity cannot fill fails the build. Mappings onto the entity leave the fields the
+ * service manages itself (audit, version, stock shards, change sequence) untouched.
+ */
+@Mapper(componentModel = "spring", builder = @Builder(disableBuilder = true),
+    unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface ProductMapper {
+
+  ProductDto toDto(ProductDAO productDAO);
+
+  @BeanMapping(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+  ProductDAO toEntity(ProductDto dto);
+
+  ProductResponseDTO toResponse(ProductDAO productDAO);
+
+  @BeanMapping(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+  ProductDAO toEntity(ProductCreateDTO dto);
+
+  /**
+   * Copies the fields of {@code dto} that are set onto {@code product}; the id stays as it is.
+   */
+  @BeanMapping(unmappedTargetPolicy = ReportingPolicy.IGNORE,
+      nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+  @Mapping(target = "id", ignore = true)
+  void update(ProductUpdateDTO dto, @MappingTarget ProductDAO product);
 }
@@ -0,0 +1,21 @@
+package com.commerce.product.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * A search hit, answered from the index alone; stock is not part of it, it changes too often.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResultDTO {
+  private Long id;
+  private String name;
+  private BigDecimal price;
+}
@@ -0,0 +1,23 @@
+package com.commerce.product.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The last sequence number handed out to a product change; a single row, see
+ * {@link com.commerce.product.service.ProductChangeFeed}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "product_change_counter")
+public class ProductChangeCounterDAO {
+  @Id
+  private Integer id;
+  private long seq;
+}
@@ -1,13 +1,21 @@
 package com.commerce.product.models;
 
 import com.commerce.common.model.BaseEntity;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Formula;
 
 import java.math.BigDecimal;
 
@@ -17,9 +25,40 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_name_id", columnList = "name, id"),
+    @Index(name = "idx_products_price_id", columnList = "price, id"),
+    @Index(name = "idx_products_change_seq_id", columnList = "change_seq, id")
+})
 public class ProductDAO extends BaseEntity {
   private String name;
   private BigDecimal price;
   private int stock;
+  
+  // number of rows in product_stock_shards holding this product's stock; 0 unless it is a hot product
+  @Builder.Default
+  @Column(columnDefinition = "integer default 0")
+  private int stockShards = 0;
+  
+  // bumped by every write of the row except stock changes, which the stock itself accounts for in ETags
+  @Version
+  @Column(columnDefinition = "bigint default 0 not null")
+  private long version;
+  
+  // position of the latest create, update or delete in the change feed; 0 for rows older than the feed
+  @Column(columnDefinition = "bigint default 0 not null")
+  private long changeSeq;
+  
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @Formula("(case when stock_shards > 0 then (select coalesce(sum(s.stock), 0) from product_stock_shards s"
+      + " where s.product_id = id) else 0 end)")
+  private int shardedStock;
+  
+  /**
+   * Stock available for sale: for a hot product the sum over its shards.
+   */
+  public int getStock() {
+    return stock + shardedStock;
+  }
 }
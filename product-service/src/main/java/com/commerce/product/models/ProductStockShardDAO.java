@@ -0,0 +1,31 @@
+package com.commerce.product.models;
+
+import com.commerce.common.model.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * One slice of a hot product's stock. Buyers spread their decrements over the shards,
+ * so they do not all queue for the lock on the same row.
+ */
+@Data
+@SuperBuilder
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "product_stock_shards", uniqueConstraints =
+    @UniqueConstraint(name = "uk_product_stock_shards_shard", columnNames = {"product_id", "shard"}))
+public class ProductStockShardDAO extends BaseEntity {
+  @Column(name = "product_id", nullable = false)
+  private Long productId;
+  private int shard;
+  private int stock;
+}
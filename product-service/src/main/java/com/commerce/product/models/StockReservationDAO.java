@@ -0,0 +1,43 @@
+package com.commerce.product.models;
+
+import com.commerce.common.model.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+
+/**
+ * Units of a product held for an order. They are already taken off the product's stock,
+ * so the stock column stays the available-to-sell count; committing drops the hold, releasing
+ * or expiring it puts the units back.
+ */
+@Data
+@SuperBuilder
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stock_reservations", uniqueConstraints =
+    @UniqueConstraint(name = "uk_stock_reservations_order_product", columnNames = {"order_id", "product_id"}),
+    // the expiry sweep and the startup scheduling read ranges of it
+    indexes = @Index(name = "idx_stock_reservations_expires_at", columnList = "expires_at"))
+public class StockReservationDAO extends BaseEntity {
+  @Column(name = "order_id", nullable = false)
+  private Long orderId;
+  @Column(name = "product_id", nullable = false)
+  private Long productId;
+  // the user who reserved; only they can reserve again, commit or release
+  @Column(name = "customer_id")
+  private Long customerId;
+  private int quantity;
+  @Column(nullable = false)
+  private Instant expiresAt;
+}
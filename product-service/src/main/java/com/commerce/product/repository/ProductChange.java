@@ -0,0 +1,18 @@
+package com.commerce.product.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * A row of the product change feed: the product as of its latest change, and that change's sequence number.
+ */
+public interface ProductChange {
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    boolean isDeleted();
+
+    long getChangeSeq();
+}
@@ -1,12 +1,73 @@
 package com.commerce.product.repository;
 
 import com.commerce.product.models.ProductDAO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
-public interface ProductRepository extends JpaRepository<ProductDAO, Long> {
+public interface ProductRepository extends JpaRepository<ProductDAO, Long>, StockUpdateRepository {
     List<ProductDAO> findProductByIdIn(List<Long> ids);
 
-    boolean existsByName(String name);
+    // deleted products keep their rows for the change feed, but not their names
+    boolean existsByNameAndDeletedFalse(String name);
+
+    List<ProductSearchRow> findSearchRowsByIdGreaterThanAndDeletedFalseOrderByIdAsc(Long id, Limit limit);
+
+    List<ProductSearchRow> findSearchRowsByNameInAndDeletedFalse(Collection<String> names);
+
+    @Query("select p.name from ProductDAO p where p.name in :names and p.deleted = false")
+    Set<String> findNamesByNameIn(@Param("names") Collection<String> names);
+
+    // keyset pages: each query seeks past the last row of the previous page on (sort key, id), so a page
+    // costs the same however deep into the catalog it is; products without the sort key are not listed
+    String SUMMARY_SELECT = "select p.id as id, p.name as name, p.price as price,"
+            + " p.stock + p.shardedStock as stock from ProductDAO p where p.deleted = false";
+
+    @Query(SUMMARY_SELECT + " and p.id > :id order by p.id")
+    List<ProductSummary> findSummariesAfterId(@Param("id") long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + " and p.name is not null order by p.name, p.id")
+    List<ProductSummary> findSummariesByName(Limit limit);
+
+    @Query(SUMMARY_SELECT + " and (p.name > :name or (p.name = :name and p.id > :id)) order by p.name, p.id")
+    List<ProductSummary> findSummariesAfterName(@Param("name") String name, @Param("id") long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + " and p.price is not null order by p.price, p.id")
+    List<ProductSummary> findSummariesByPrice(Limit limit);
+
+    @Query(SUMMARY_SELECT + " and (p.price > :price or (p.price = :price and p.id > :id)) order by p.price, p.id")
+    List<ProductSummary> findSummariesAfterPrice(@Param("price") BigDecimal price, @Param("id") long id, Limit limit);
+
+    // changes after (seq, id), deleted products included; keyset on the change_seq index like the listing
+    @Query("select p.id as id, p.name as name, p.price as price, p.deleted as deleted, p.changeSeq as changeSeq"
+            + " from ProductDAO p where p.changeSeq > :seq or (p.changeSeq = :seq and p.id > :id)"
+            + " order by p.changeSeq, p.id")
+    List<ProductChange> findChangesAfter(@Param("seq") long seq, @Param("id") long id, Limit limit);
+
+    // the stock check and the write are one statement, so two buyers cannot both take the last unit
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE products SET stock = stock - :quantity"
+            + " WHERE id = :id AND stock >= :quantity AND deleted = false", nativeQuery = true)
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // a hot product has no stock on its row; 0 rows updated sends the units to its shards
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE products SET stock = stock + :quantity"
+            + " WHERE id = :id AND stock_shards = 0 AND deleted = false", nativeQuery = true)
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Query("select p.id as id, p.version as version, p.stock + p.shardedStock as stock, p.deleted as deleted"
+            + " from ProductDAO p where p.id in :ids")
+    List<ProductVersion> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.stockShards from ProductDAO p where p.id = :id")
+    Optional<Integer> findStockShardsById(@Param("id") Long id);
 }
@@ -0,0 +1,14 @@
+package com.commerce.product.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * The columns the search index keeps of a product.
+ */
+public interface ProductSearchRow {
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+}
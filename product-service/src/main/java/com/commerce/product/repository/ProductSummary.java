@@ -0,0 +1,17 @@
+package com.commerce.product.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * A product as listed in the catalog: plain columns, no managed entity. {@code stock} already
+ * includes the shards of a hot product.
+ */
+public interface ProductSummary {
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    int getStock();
+}
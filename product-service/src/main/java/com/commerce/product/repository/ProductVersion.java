@@ -0,0 +1,15 @@
+package com.commerce.product.repository;
+
+/**
+ * What a product response depends on beyond its id: the entity version, bumped on every write of
+ * the products row except stock changes, and the stock including the shards of a hot product.
+ */
+public interface ProductVersion {
+    Long getId();
+
+    long getVersion();
+
+    int getStock();
+
+    boolean isDeleted();
+}
@@ -0,0 +1,32 @@
+package com.commerce.product.repository;
+
+import com.commerce.product.models.StockReservationDAO;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservationDAO, Long> {
+    // commit, release and expiry of the same order serialize on these rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockReservationDAO> findByOrderIdOrderByProductIdAsc(Long orderId);
+
+    // rows another instance is releasing are skipped rather than waited for
+    @Query(value = "SELECT * FROM stock_reservations WHERE expires_at < :now ORDER BY id LIMIT :limit"
+            + " FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<StockReservationDAO> lockExpired(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Query("select r.orderId as orderId, min(r.expiresAt) as expiresAt from StockReservationDAO r"
+            + " where r.expiresAt > :now group by r.orderId")
+    List<PendingReservation> findPending(@Param("now") Instant now);
+
+    interface PendingReservation {
+        Long getOrderId();
+
+        Instant getExpiresAt();
+    }
+}
@@ -0,0 +1,22 @@
+package com.commerce.product.repository;
+
+import java.util.SortedMap;
+
+/**
+ * Stock changes issued as plain conditional updates, so concurrent buyers never overwrite each other.
+ */
+public interface StockUpdateRepository {
+
+    /**
+     * Decrements the stock of every product in {@code quantities} in one JDBC batch. Each update only
+     * applies if enough stock is left; the returned row counts are in key order, a 0 marks a product
+     * that is missing or short.
+     */
+    int[] decrementStocks(SortedMap<Long, Integer> quantities);
+
+    /**
+     * Increments the stock of every product in {@code quantities} in one JDBC batch. The returned row
+     * counts are in key order; a 0 marks a product that is missing or hot, whose stock is in its shards.
+     */
+    int[] incrementStocks(SortedMap<Long, Integer> quantities);
+}
@@ -0,0 +1,41 @@
+package com.commerce.product.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+class StockUpdateRepositoryImpl implements StockUpdateRepository {
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ? AND deleted = false";
+    private static final String INCREMENT_STOCK_SQL =
+            "UPDATE products SET stock = stock + ? WHERE id = ? AND stock_shards = 0 AND deleted = false";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    StockUpdateRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] decrementStocks(SortedMap<Long, Integer> quantities) {
+        // ascending ids: concurrent batches lock rows in the same order and cannot deadlock
+        List<Object[]> args = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> e : quantities.entrySet()) {
+            args.add(new Object[]{e.getValue(), e.getKey(), e.getValue()});
+        }
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, args);
+    }
+
+    @Override
+    public int[] incrementStocks(SortedMap<Long, Integer> quantities) {
+        // same lock order as decrementStocks
+        List<Object[]> args = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> e : quantities.entrySet()) {
+            args.add(new Object[]{e.getValue(), e.getKey()});
+        }
+        return jdbcTemplate.batchUpdate(INCREMENT_STOCK_SQL, args);
+    }
+}
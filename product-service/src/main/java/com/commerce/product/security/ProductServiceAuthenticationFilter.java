@@ -1,7 +1,8 @@
 package com.commerce.product.security;
 
-import com.commerce.common.dto.UserResponseDTO;
-import com.commerce.common.serviceinvocation.AuthClient;
+import com.commerce.common.security.JwtVerifier;
+import com.commerce.common.security.RevocationRegistry;
+import com.commerce.common.security.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,10 +16,12 @@ import java.io.IOException;
 import java.util.Collections;
 
 public class ProductServiceAuthenticationFilter extends OncePerRequestFilter {
-  private final AuthClient authClient;
+  private final JwtVerifier jwtVerifier;
+  private final RevocationRegistry revocations;
   
-  public ProductServiceAuthenticationFilter(AuthClient authClient) {
-    this.authClient = authClient;
+  public ProductServiceAuthenticationFilter(JwtVerifier jwtVerifier, RevocationRegistry revocations) {
+    this.jwtVerifier = jwtVerifier;
+    this.revocations = revocations;
   }
   
   @Override
@@ -26,13 +29,14 @@ public class ProductServiceAuthenticationFilter extends OncePerRequestFilter {
                                   @NonNull FilterChain filterChain) throws ServletException, IOException {
     String bearerToken = request.getHeader("Authorization");
     
-    if (bearerToken != null) {
+    if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
       try {
-        UserResponseDTO userResponseDTO = authClient.validate(bearerToken);
-        logger.info("Authenticated user: " + userResponseDTO);
-        SecurityContextHolder.getContext().setAuthentication(
-            new UsernamePasswordAuthenticationToken(userResponseDTO.getId().toString(), null, Collections.emptyList())
-        );
+        VerifiedToken token = jwtVerifier.verify(bearerToken.substring(7));
+        if (!revocations.isRevoked(token)) {
+          SecurityContextHolder.getContext().setAuthentication(
+              new UsernamePasswordAuthenticationToken(token.userId().toString(), null, Collections.emptyList())
+          );
+        }
       } catch (Exception e) {
         logger.error("Authentication failed", e);
       }
@@ -1,6 +1,10 @@
 package com.commerce.product.security;
 
+import com.commerce.common.security.JwtVerifier;
+import com.commerce.common.security.RevocationFeedPoller;
+import com.commerce.common.security.RevocationRegistry;
 import com.commerce.common.serviceinvocation.AuthClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,14 +18,26 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 
 public class ProductServiceSecurityConfig {
-  private final AuthClient authClient;
   
-  public ProductServiceSecurityConfig(AuthClient authClient) {
-    this.authClient = authClient;
+  @Bean
+  public JwtVerifier jwtVerifier(@Value("${jwt.secret}") String secret) {
+    return new JwtVerifier(secret);
+  }
+  
+  @Bean
+  public RevocationRegistry revocationRegistry() {
+    return new RevocationRegistry();
+  }
+  
+  @Bean(initMethod = "start", destroyMethod = "close")
+  public RevocationFeedPoller revocationFeedPoller(AuthClient authClient, RevocationRegistry revocationRegistry,
+                                                  @Value("${auth.revocation.poll-interval-ms:5000}") long intervalMillis) {
+    return new RevocationFeedPoller(authClient, revocationRegistry, intervalMillis);
   }
   
   @Bean
-  public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain filterChain(HttpSecurity http, JwtVerifier jwtVerifier,
+                                         RevocationRegistry revocationRegistry) throws Exception {
     http
         .csrf(AbstractHttpConfigurer::disable)
         .sessionManagement(session ->
@@ -31,7 +47,7 @@ public class ProductServiceSecurityConfig {
             .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
             .requestMatchers("/api/products/**").authenticated()
             .anyRequest().permitAll())
-        .addFilterBefore(new ProductServiceAuthenticationFilter(authClient),
+        .addFilterBefore(new ProductServiceAuthenticationFilter(jwtVerifier, revocationRegistry),
             UsernamePasswordAuthenticationFilter.class);
     
     return http.build();
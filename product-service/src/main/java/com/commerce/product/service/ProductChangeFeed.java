@@ -0,0 +1,114 @@
+package com.commerce.product.service;
+
+import com.commerce.common.dto.ProductChangeDTO;
+import com.commerce.common.dto.ProductChangeFeedDTO;
+import com.commerce.common.exception.ValidationException;
+import com.commerce.common.util.PageCursor;
+import com.commerce.product.config.ProductListingProperties;
+import com.commerce.product.repository.ProductChange;
+import com.commerce.product.repository.ProductRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Changes to the catalog (creates, updates and deletes) for downstream caches, in the order they
+ * committed.
+ * <p>
+ * Every change stamps the products it writes with a sequence number from a single counter row. The
+ * transaction holds that row locked until it commits, so numbers become visible strictly in order and
+ * a poller reading past the last number it saw cannot miss one that commits later. Catalog edits are
+ * rare enough to queue on one row; stock changes do not go through the feed.
+ * <p>
+ * To avoid deadlocks a transaction takes its number before it locks any products row.
+ */
+@Service
+public class ProductChangeFeed {
+    private static final String INCREMENT_SQL = "UPDATE product_change_counter SET seq = seq + 1 WHERE id = 1";
+    private static final String CURRENT_SQL = "SELECT seq FROM product_change_counter WHERE id = 1";
+    private static final String INIT_SQL = "INSERT INTO product_change_counter (id, seq) VALUES (1, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final ProductListingProperties listingProps;
+    private final TransactionTemplate separateTransaction;
+
+    public ProductChangeFeed(JdbcTemplate jdbcTemplate, ProductRepository productRepository,
+                             ProductListingProperties listingProps, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRepository = productRepository;
+        this.listingProps = listingProps;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The sequence number for the change the current transaction is making.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public long next() {
+        if (jdbcTemplate.update(INCREMENT_SQL) == 0) {
+            // first change ever; created on the side, a failed insert would abort the caller's transaction
+            try {
+                separateTransaction.executeWithoutResult(status -> jdbcTemplate.update(INIT_SQL));
+            } catch (DuplicateKeyException e) {
+                // another instance created it first
+            }
+            jdbcTemplate.update(INCREMENT_SQL);
+        }
+        return jdbcTemplate.queryForObject(CURRENT_SQL, Long.class);
+    }
+
+    /**
+     * Up to {@code size} products changed after {@code cursor}, or from the beginning without one.
+     */
+    public ProductChangeFeedDTO since(String cursor, Integer size) {
+        int pageSize = size == null ? listingProps.getDefaultPageSize() : size;
+        if (pageSize < 1 || pageSize > listingProps.getMaxPageSize()) {
+            throw new ValidationException("Page size must be between 1 and " + listingProps.getMaxPageSize());
+        }
+        long seq = -1;
+        long id = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            List<String> keys = PageCursor.decode(cursor, 2);
+            try {
+                id = Long.parseLong(keys.get(0));
+                seq = Long.parseLong(keys.get(1));
+            } catch (NumberFormatException e) {
+                throw new ValidationException("Invalid cursor");
+            }
+        }
+
+        // one extra row tells whether the poller is caught up
+        List<ProductChange> rows = productRepository.findChangesAfter(seq, id, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductChange> changes = hasMore ? rows.subList(0, pageSize) : rows;
+        if (!changes.isEmpty()) {
+            ProductChange last = changes.get(changes.size() - 1);
+            id = last.getId();
+            seq = last.getChangeSeq();
+        }
+        return ProductChangeFeedDTO.builder()
+                .cursor(PageCursor.encode(id, seq))
+                .hasMore(hasMore)
+                .changes(changes.stream().map(ProductChangeFeed::toDto).toList())
+                .build();
+    }
+
+    private static ProductChangeDTO toDto(ProductChange change) {
+        return ProductChangeDTO.builder()
+                .id(change.getId())
+                .name(change.getName())
+                .price(change.getPrice())
+                .deleted(change.isDeleted())
+                .sequence(change.getChangeSeq())
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.commerce.product.service;
+
+import com.commerce.product.models.ProductDAO;
+import com.commerce.product.repository.ProductVersion;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Entity tags for product responses, built from the version and stock of each product so they can be
+ * computed by a query that loads neither the entity nor its name. The same products always give the
+ * same tag, whether it was computed from {@link ProductVersion} rows or from loaded entities.
+ */
+public final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    public static String of(ProductDAO product) {
+        return of(product.getVersion(), product.getStock());
+    }
+
+    public static String of(ProductVersion version) {
+        return of(version.getVersion(), version.getStock());
+    }
+
+    /**
+     * Tag of a list of products, independent of the order they are listed in.
+     */
+    public static String ofProducts(Collection<ProductDAO> products) {
+        return digest(products.stream()
+                .sorted(Comparator.comparing(ProductDAO::getId))
+                .map(p -> p.getId() + ":" + p.getVersion() + ":" + p.getStock())
+                .toList());
+    }
+
+    public static String ofVersions(Collection<? extends ProductVersion> versions) {
+        return digest(versions.stream()
+                .sorted(Comparator.comparing(ProductVersion::getId))
+                .map(v -> v.getId() + ":" + v.getVersion() + ":" + v.getStock())
+                .toList());
+    }
+
+    /**
+     * Whether an If-None-Match header value names {@code etag}, comparing weakly as RFC 9110 asks for.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String of(long version, int stock) {
+        return "\"" + version + "-" + stock + "\"";
+    }
+
+    private static String digest(List<String> entries) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            for (String entry : entries) {
+                sha.update(entry.getBytes(StandardCharsets.US_ASCII));
+                sha.update((byte) ';');
+            }
+            // 128 bits are plenty to tell two states of the same id list apart
+            byte[] digest = sha.digest();
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
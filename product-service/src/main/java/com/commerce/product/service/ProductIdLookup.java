@@ -0,0 +1,85 @@
+package com.commerce.product.service;
+
+import com.commerce.product.config.ProductLookupProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a lookup by product ids with as few distinct statements as possible.
+ * <p>
+ * The ids are deduplicated and sorted, nulls dropped, then split into chunks of {@code chunk-size}. With Hibernate
+ * padding IN lists to the next power of two, every list size maps onto one of a few statements the
+ * database has already planned, instead of one statement per cart size; a very long list costs several
+ * chunk-sized queries rather than one huge one. Chunks beyond the first run on a small pool, next to
+ * the first one running on the calling thread. When the pool is busy the caller runs them itself.
+ */
+@Component
+public class ProductIdLookup implements AutoCloseable {
+    private final int chunkSize;
+    private final ThreadPoolExecutor pool;
+
+    public ProductIdLookup(ProductLookupProperties props) {
+        this.chunkSize = props.getChunkSize();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(props.getParallelism(), props.getParallelism(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(props.getParallelism() * 4), r -> {
+            Thread t = new Thread(r, "product-lookup-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * The rows {@code query} finds for {@code ids}, queried chunk by chunk, in no particular order.
+     */
+    public <T> List<T> find(Collection<Long> ids, Function<List<Long>, List<T>> query) {
+        if (ids == null) {
+            return List.of();
+        }
+        // a TreeSet rejects null, and a null id matches no row anyway
+        List<Long> distinct = new ArrayList<>(ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new)));
+        if (distinct.isEmpty()) {
+            return List.of();
+        }
+        if (distinct.size() <= chunkSize) {
+            return query.apply(distinct);
+        }
+        List<CompletableFuture<List<T>>> rest = new ArrayList<>();
+        for (int from = chunkSize; from < distinct.size(); from += chunkSize) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+            rest.add(CompletableFuture.supplyAsync(() -> query.apply(chunk), pool));
+        }
+        List<T> rows = new ArrayList<>(query.apply(distinct.subList(0, chunkSize)));
+        for (CompletableFuture<List<T>> chunk : rest) {
+            try {
+                rows.addAll(chunk.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw e;
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,309 @@
+package com.commerce.product.service;
+
+import com.commerce.common.exception.ValidationException;
+import com.commerce.product.config.ProductImportProperties;
+import com.commerce.product.dtos.ProductCreateDTO;
+import com.commerce.product.dtos.ProductImportResultDTO;
+import com.commerce.product.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product import from NDJSON (one {@link ProductCreateDTO} per line) or CSV.
+ * <p>
+ * The body is read line by line and written in batches, so memory holds one batch however large the
+ * import is. A batch costs one query for the names that already exist and one JDBC batch for the
+ * inserts; with reWriteBatchedInserts the Postgres driver sends the latter as a few multi-row inserts.
+ * Every batch commits on its own: a batch the database rejects fails only its own rows.
+ * <p>
+ * Names are deduplicated like {@link ProductService#create}: a row whose name exists, or appeared
+ * earlier in the same import, is counted as a duplicate and skipped.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String INSERT_SQL = "INSERT INTO products (name, price, stock, stock_shards, deleted,"
+            + " change_seq, created_by, created_at, updated_by, updated_at) VALUES (?, ?, ?, 0, false, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final ProductSearchService productSearch;
+    private final ProductChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final AuditorAware<Long> auditor;
+    private final ProductImportProperties props;
+    private final TransactionTemplate transactions;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate, ProductRepository productRepository,
+                                ProductSearchService productSearch, ProductChangeFeed changeFeed,
+                                ObjectMapper objectMapper, Validator validator, AuditorAware<Long> auditor,
+                                ProductImportProperties props, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRepository = productRepository;
+        this.productSearch = productSearch;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.auditor = auditor;
+        this.props = props;
+        this.transactions = new TransactionTemplate(transactionManager);
+    }
+
+    public ProductImportResultDTO importProducts(InputStream body, Format format) {
+        long started = System.nanoTime();
+        ImportRun run = new ImportRun(props.getMaxReportedErrors(), auditor.getCurrentAuditor().orElse(null));
+        List<Row> batch = new ArrayList<>(props.getBatchSize());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            CsvColumns columns = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && columns == null) {
+                    columns = CsvColumns.of(line);
+                    continue;
+                }
+                run.rows++;
+                try {
+                    ProductCreateDTO product = format == Format.CSV ? columns.parse(line) : parseJson(line);
+                    validate(product);
+                    batch.add(new Row(lineNumber, product));
+                } catch (IllegalArgumentException e) {
+                    run.fail(lineNumber, e.getMessage());
+                }
+                if (batch.size() == props.getBatchSize()) {
+                    write(batch, run);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            // batches written so far stay committed
+            throw new UncheckedIOException("Import aborted after " + run.imported + " products", e);
+        }
+        if (!batch.isEmpty()) {
+            write(batch, run);
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        long rowsPerSecond = run.rows * 1000 / elapsedMillis;
+        log.info("Imported {} of {} products ({} duplicates, {} failed) in {} ms, {} rows/s",
+                run.imported, run.rows, run.duplicates, run.failed, elapsedMillis, rowsPerSecond);
+        return ProductImportResultDTO.builder()
+                .rows(run.rows)
+                .imported(run.imported)
+                .duplicates(run.duplicates)
+                .failed(run.failed)
+                .errors(run.errors)
+                .elapsedMillis(elapsedMillis)
+                .rowsPerSecond(rowsPerSecond)
+                .build();
+    }
+
+    private void write(List<Row> batch, ImportRun run) {
+        // the first row with a name wins within the import; rows of earlier batches are found in the table
+        Map<String, Row> byName = new LinkedHashMap<>();
+        for (Row row : batch) {
+            if (byName.putIfAbsent(row.product().getName(), row) != null) {
+                run.duplicates++;
+            }
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<String> inserted;
+        try {
+            inserted = transactions.execute(status -> {
+                // the whole batch is one change; the feed orders its rows by id
+                long changeSeq = changeFeed.next();
+                Set<String> existing = productRepository.findNamesByNameIn(byName.keySet());
+                List<String> names = new ArrayList<>(byName.size());
+                List<Object[]> args = new ArrayList<>(byName.size());
+                for (Map.Entry<String, Row> e : byName.entrySet()) {
+                    if (existing.contains(e.getKey())) {
+                        continue;
+                    }
+                    ProductCreateDTO product = e.getValue().product();
+                    names.add(e.getKey());
+                    args.add(new Object[]{product.getName(), product.getPrice(), product.getStock(), changeSeq,
+                            run.auditorId, now, run.auditorId, now});
+                }
+                jdbcTemplate.batchUpdate(INSERT_SQL, args);
+                return names;
+            });
+        } catch (DataAccessException e) {
+            String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("Import batch of {} rows failed: {}", byName.size(), reason);
+            byName.values().forEach(row -> run.fail(row.line(), "Batch rejected by the database: " + reason));
+            return;
+        }
+        run.imported += inserted.size();
+        run.duplicates += byName.size() - inserted.size();
+        if (!inserted.isEmpty()) {
+            productRepository.findSearchRowsByNameInAndDeletedFalse(inserted).forEach(productSearch::index);
+        }
+    }
+
+    private ProductCreateDTO parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, ProductCreateDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private void validate(ProductCreateDTO product) {
+        Set<ConstraintViolation<ProductCreateDTO>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    /**
+     * Fields of one CSV record: comma separated, optionally enclosed in double quotes, with {@code ""}
+     * standing for a quote inside a quoted field. A quoted field cannot span lines. Whitespace around a
+     * field is dropped, so {@code Shirt} and {@code Shirt } name the same product; inside quotes it is kept.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            i = skipBlanks(line, i);
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                i = skipBlanks(line, i);
+                if (i < line.length() && line.charAt(i) != ',') {
+                    throw new IllegalArgumentException("Unexpected character after quoted field");
+                }
+                fields.add(field.toString());
+            } else {
+                while (i < line.length() && line.charAt(i) != ',') {
+                    field.append(line.charAt(i++));
+                }
+                fields.add(field.toString().strip());
+            }
+            field.setLength(0);
+            if (i >= line.length()) {
+                return fields;
+            }
+            i++;
+        }
+    }
+
+    private static int skipBlanks(String line, int i) {
+        while (i < line.length() && (line.charAt(i) == ' ' || line.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private record Row(long line, ProductCreateDTO product) {
+    }
+
+    // positions of the columns named by the header line
+    private record CsvColumns(int name, int price, int stock, int count) {
+
+        static CsvColumns of(String header) {
+            List<String> names;
+            try {
+                names = parseCsvLine(header).stream().map(h -> h.toLowerCase(Locale.ROOT)).toList();
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Invalid CSV header: " + e.getMessage());
+            }
+            int name = names.indexOf("name");
+            int price = names.indexOf("price");
+            int stock = names.indexOf("stock");
+            if (name < 0 || price < 0 || stock < 0) {
+                throw new ValidationException("CSV header must name the columns name, price and stock");
+            }
+            return new CsvColumns(name, price, stock, names.size());
+        }
+
+        ProductCreateDTO parse(String line) {
+            List<String> fields = parseCsvLine(line);
+            if (fields.size() != count) {
+                throw new IllegalArgumentException("Expected " + count + " fields, found " + fields.size());
+            }
+            String price = fields.get(this.price);
+            String stock = fields.get(this.stock);
+            try {
+                return new ProductCreateDTO(fields.get(name),
+                        price.isEmpty() ? null : new BigDecimal(price),
+                        stock.isEmpty() ? 0 : Integer.parseInt(stock));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number in price or stock");
+            }
+        }
+    }
+
+    private static final class ImportRun {
+        private final int maxErrors;
+        private final Long auditorId;
+        private final List<ProductImportResultDTO.RowError> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long duplicates;
+        private long failed;
+
+        ImportRun(int maxErrors, Long auditorId) {
+            this.maxErrors = maxErrors;
+            this.auditorId = auditorId;
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ProductImportResultDTO.RowError(line, message));
+            }
+        }
+    }
+}
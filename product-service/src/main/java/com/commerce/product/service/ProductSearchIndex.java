@@ -0,0 +1,273 @@
+package com.commerce.product.service;
+
+import com.commerce.product.dtos.ProductSearchResultDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product names.
+ * <p>
+ * Names are split into lower-case tokens of letters and digits; every token maps to the ids of the
+ * products whose name contains it, kept sorted. Tokens are ordered, so all tokens starting with a
+ * prefix are one range of the map. A query matches a product if each of its tokens is a prefix of
+ * some token of the name ("red sh" finds "Red Shirt"). Hits come back in id order.
+ * <p>
+ * A query walks only the postings of its most selective token, merged lazily in id order, and looks
+ * each candidate up in the postings of the other tokens, so it stops as soon as {@code limit} products
+ * matched. Updates take a write lock for the few postings they touch.
+ */
+public class ProductSearchIndex {
+    private static final int MAX_PROBED_TOKENS = 16;
+
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds the product, or replaces what the index held for it.
+     */
+    public void put(Long id, String name, BigDecimal price) {
+        Set<String> tokens = tokenize(name);
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(id, new Entry(id, name, price));
+            if (previous != null) {
+                for (String token : tokenize(previous.name())) {
+                    if (!tokens.contains(token)) {
+                        removePosting(token, id);
+                    }
+                }
+            }
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                for (String token : tokenize(previous.name())) {
+                    removePosting(token, id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} products whose name matches every token of {@code query}, by ascending id.
+     */
+    public List<ProductSearchResultDTO> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            // the term with the fewest postings drives the query, the others only filter its candidates
+            List<Term> filters = new ArrayList<>(terms.size());
+            int driver = -1;
+            long driverSize = Long.MAX_VALUE;
+            for (String term : terms) {
+                List<Postings> range = new ArrayList<>();
+                long size = 0;
+                for (Postings p : postings.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                    range.add(p);
+                    size += p.size;
+                    if (size >= driverSize && range.size() > MAX_PROBED_TOKENS) {
+                        // neither the driver nor worth probing; such a term is checked against the name
+                        range = null;
+                        break;
+                    }
+                }
+                if (size == 0) {
+                    return List.of();
+                }
+                if (range != null && size < driverSize) {
+                    driver = filters.size();
+                    driverSize = size;
+                }
+                filters.add(new Term(term, range));
+            }
+            List<Postings> driverRange = filters.remove(driver).range();
+
+            List<ProductSearchResultDTO> hits = new ArrayList<>(Math.min(limit, (int) Math.min(driverSize, 1024)));
+            PriorityQueue<Cursor> merge = new PriorityQueue<>(driverRange.size());
+            for (Postings p : driverRange) {
+                merge.add(new Cursor(p));
+            }
+            long last = Long.MIN_VALUE;
+            while (!merge.isEmpty() && hits.size() < limit) {
+                Cursor cursor = merge.poll();
+                long id = cursor.current();
+                if (cursor.advance()) {
+                    merge.add(cursor);
+                }
+                // the same product shows up once for every token of its name in the range
+                if (id == last) {
+                    continue;
+                }
+                last = id;
+                if (matchesAll(id, filters)) {
+                    Entry entry = entries.get(id);
+                    hits.add(ProductSearchResultDTO.builder()
+                            .id(entry.id())
+                            .name(entry.name())
+                            .price(entry.price())
+                            .build());
+                }
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removePosting(String token, Long id) {
+        Postings p = postings.get(token);
+        if (p != null && p.remove(id) && p.size == 0) {
+            postings.remove(token);
+        }
+    }
+
+    private boolean matchesAll(long id, List<Term> filters) {
+        Set<String> tokens = null;
+        for (Term filter : filters) {
+            if (filter.probed()) {
+                if (!filter.contains(id)) {
+                    return false;
+                }
+                continue;
+            }
+            if (tokens == null) {
+                tokens = tokenize(entries.get(id).name());
+            }
+            if (tokens.stream().noneMatch(token -> token.startsWith(filter.prefix()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private record Entry(Long id, String name, BigDecimal price) {
+    }
+
+    private record Term(String prefix, List<Postings> range) {
+
+        // looking a candidate up costs a binary search per token of a prefix, scanning the name a fixed price
+        boolean probed() {
+            return range != null && range.size() <= MAX_PROBED_TOKENS;
+        }
+
+        boolean contains(long id) {
+            for (Postings p : range) {
+                if (p.contains(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // sorted ids; products are mostly created in id order, so adding is nearly always an append
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int at = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0 && at < size) {
+                return;
+            }
+            int insert = at < 0 ? -at - 1 : at;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+            ids[insert] = id;
+            size++;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+
+    private static final class Cursor implements Comparable<Cursor> {
+        private final Postings postings;
+        private int position;
+
+        Cursor(Postings postings) {
+            this.postings = postings;
+        }
+
+        long current() {
+            return postings.ids[position];
+        }
+
+        boolean advance() {
+            return ++position < postings.size;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return Long.compare(current(), other.current());
+        }
+    }
+}
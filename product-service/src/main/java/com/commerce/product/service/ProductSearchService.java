@@ -0,0 +1,110 @@
+package com.commerce.product.service;
+
+import com.commerce.common.exception.ServiceUnavailableException;
+import com.commerce.common.exception.ValidationException;
+import com.commerce.product.dtos.ProductSearchResultDTO;
+import com.commerce.product.models.ProductDAO;
+import com.commerce.product.repository.ProductRepository;
+import com.commerce.product.repository.ProductSearchRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Product search by name, answered from a {@link ProductSearchIndex}. The index is loaded from the
+ * database once at startup and kept current by {@link #index} and {@link #remove} as creates, updates and
+ * deletes commit.
+ */
+@Service
+@Slf4j
+public class ProductSearchService {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex index = new ProductSearchIndex();
+    // products indexed while the initial load runs; the load must not overwrite them with older rows
+    private Set<Long> indexedDuringLoad = new HashSet<>();
+
+    public ProductSearchService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        long after = 0;
+        List<ProductSearchRow> page;
+        do {
+            page = productRepository.findSearchRowsByIdGreaterThanAndDeletedFalseOrderByIdAsc(after,
+                    Limit.of(LOAD_PAGE_SIZE));
+            synchronized (this) {
+                for (ProductSearchRow row : page) {
+                    if (!indexedDuringLoad.contains(row.getId())) {
+                        index.put(row.getId(), row.getName(), row.getPrice());
+                    }
+                }
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        synchronized (this) {
+            indexedDuringLoad = null;
+        }
+        log.info("Indexed {} products for search in {} ms", index.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public void index(ProductDAO product) {
+        index(product.getId(), product.getName(), product.getPrice());
+    }
+
+    public void index(ProductSearchRow row) {
+        index(row.getId(), row.getName(), row.getPrice());
+    }
+
+    private void index(Long id, String name, BigDecimal price) {
+        synchronized (this) {
+            if (indexedDuringLoad != null) {
+                indexedDuringLoad.add(id);
+            }
+        }
+        index.put(id, name, price);
+    }
+
+    public void remove(Long productId) {
+        synchronized (this) {
+            if (indexedDuringLoad != null) {
+                indexedDuringLoad.add(productId);
+            }
+        }
+        index.remove(productId);
+    }
+
+    public List<ProductSearchResultDTO> search(String query, Integer limit) {
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new ValidationException("Query must be between 1 and " + MAX_QUERY_LENGTH + " characters");
+        }
+        int max = limit == null ? DEFAULT_LIMIT : limit;
+        if (max < 1 || max > MAX_LIMIT) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (isLoading()) {
+            throw new ServiceUnavailableException("Search index is still loading");
+        }
+        return index.search(query, max);
+    }
+
+    private synchronized boolean isLoading() {
+        return indexedDuringLoad != null;
+    }
+}
@@ -1,15 +1,22 @@
 package com.commerce.product.service;
 
+import com.commerce.common.dto.CursorPageDTO;
 import com.commerce.common.dto.IdsDTO;
 import com.commerce.common.dto.ProductResponseDTO;
 import com.commerce.common.dto.StockUpdateBatchDTO;
+import com.commerce.common.exception.ValidationException;
 import com.commerce.product.dtos.ProductCreateDTO;
 import com.commerce.product.dtos.ProductUpdateDTO;
 import com.commerce.product.models.ProductDAO;
+import com.commerce.product.repository.ProductSummary;
 import jakarta.transaction.Transactional;
 import org.springframework.http.ResponseEntity;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 public interface ProductService {
   ProductDAO create(ProductCreateDTO productCreateDTO
@@ -20,14 +27,69 @@ public interface ProductService {
   
   ResponseEntity<List<ProductResponseDTO>> findProducts(IdsDTO idsDTO);
   
+  /**
+   * ETag of the product as {@link #find} would return it now, or empty if there is no such product.
+   */
+  Optional<String> etag(Long id);
+  
+  /**
+   * ETag of the products {@link #findProducts} would return for {@code ids} now.
+   */
+  String etag(Collection<Long> ids);
+  
   List<ProductDAO> findAll();
   
+  /**
+   * One page of the catalog sorted by {@code sort} (id, name or price), starting after {@code cursor}.
+   */
+  CursorPageDTO<ProductSummary> list(String cursor, Integer size, String sort);
+  
   ProductDAO decreaseStock(Long productId, int quantity);
   
   ProductDAO increaseStock(Long productId, int quantity);
   
   ProductDAO update(ProductUpdateDTO productUpdateDTO);
   
+  /**
+   * Soft delete: the row stays, flagged deleted, so the change feed can report it.
+   */
+  void delete(Long productId);
+  
+  ProductDAO enableHotMode(Long productId, int shards);
+  
+  ProductDAO disableHotMode(Long productId);
+  
   @Transactional
   ResponseEntity<Void> batchDecreaseStock(StockUpdateBatchDTO batchDTO);
+  
+  /**
+   * Adds the stock of every item, all or nothing. Items naming the same product are added up first.
+   */
+  @Transactional
+  ResponseEntity<Void> batchIncreaseStock(StockUpdateBatchDTO batchDTO);
+  
+  /**
+   * Quantities of a batch by product id, items naming the same product added up. Fails when the batch
+   * has no items, an item names no product, a quantity is not positive or a sum does not fit an int.
+   */
+  static SortedMap<Long, Integer> quantitiesByProduct(StockUpdateBatchDTO batchDTO) {
+    if (batchDTO.getItems() == null || batchDTO.getItems().isEmpty()) {
+      throw new ValidationException("Batch must contain at least one item");
+    }
+    SortedMap<Long, Integer> quantities = new TreeMap<>();
+    for (StockUpdateBatchDTO.StockUpdateItem item : batchDTO.getItems()) {
+      if (item == null || item.getProductId() == null) {
+        throw new ValidationException("Every item must name a product ID");
+      }
+      if (item.getQuantity() <= 0) {
+        throw new ValidationException("Quantity must be positive for product ID " + item.getProductId());
+      }
+      try {
+        quantities.merge(item.getProductId(), item.getQuantity(), Math::addExact);
+      } catch (ArithmeticException e) {
+        throw new ValidationException("Total quantity too large for product ID " + item.getProductId());
+      }
+    }
+    return quantities;
+  }
 }
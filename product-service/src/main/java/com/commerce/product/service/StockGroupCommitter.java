@@ -0,0 +1,306 @@
+package com.commerce.product.service;
+
+import com.commerce.common.dto.StockUpdateBatchDTO;
+import com.commerce.common.exception.ServiceUnavailableException;
+import com.commerce.product.config.StockGroupCommitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Group commit for batch stock decrements, off unless {@code product.group-commit.enabled} is set.
+ * <p>
+ * Every batch decrease is otherwise a transaction of its own and pays for its own commit. Here callers
+ * queue their batches and a single thread applies whatever arrived within the window, up to
+ * {@code max-group-size} batches, in one transaction: the products are locked in id order, the batches
+ * are checked against the stock in arrival order, and every product gets one update for the sum of the
+ * batches that fit. A batch that does not fit fails on its own, exactly as it would have alone.
+ * <p>
+ * Batches touching a hot product are handed back to their caller and run through
+ * {@link ProductService#batchDecreaseStock}, so buyers of a hot product keep spreading over its shards
+ * instead of queueing behind one thread. So are all batches of a group whose transaction failed, and a
+ * batch the flusher has not picked up within {@code window + commit-timeout}: the caller then runs it
+ * itself. A batch the flusher has picked up is waited for until its group is done, which the group's
+ * transaction timeout of {@code commit-timeout} (in whole seconds) bounds.
+ * <p>
+ * The meters show what the group commit buys and costs: {@code product.stock.group_commit.size} counts
+ * commits and the batches they carried, the difference being the commits saved, and
+ * {@code product.stock.group_commit.wait} is the latency added before a batch is applied.
+ */
+@Service
+@Slf4j
+public class StockGroupCommitter implements AutoCloseable {
+    private static final String UPDATE_SQL = "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?";
+
+    private final ProductService productService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactions;
+    private final StockGroupCommitProperties props;
+    private final BlockingQueue<Pending> queue;
+    private final DistributionSummary groupSize;
+    private final Timer queueWait;
+    private final Timer commitTime;
+    private final Counter handedBack;
+    private final Thread flusher;
+    private volatile boolean running;
+
+    public StockGroupCommitter(ProductService productService, JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager, StockGroupCommitProperties props,
+                               MeterRegistry meterRegistry) {
+        this.productService = productService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = new TransactionTemplate(transactionManager);
+        // in whole seconds, at least one
+        this.transactions.setTimeout((int) Math.max(1, props.getCommitTimeout().plusMillis(999).toSeconds()));
+        this.props = props;
+        this.queue = new ArrayBlockingQueue<>(props.getQueueCapacity());
+        this.groupSize = DistributionSummary.builder("product.stock.group_commit.size")
+                .description("Batch decreases applied per group commit")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("product.stock.group_commit.wait")
+                .description("Time a batch decrease waited for its group to be applied")
+                .register(meterRegistry);
+        this.commitTime = Timer.builder("product.stock.group_commit.commit")
+                .description("Time to lock, update and commit one group")
+                .register(meterRegistry);
+        this.handedBack = Counter.builder("product.stock.group_commit.handed_back")
+                .description("Batch decreases run on their own: hot products or a failed group")
+                .register(meterRegistry);
+        if (props.isEnabled()) {
+            running = true;
+            flusher = new Thread(this::run, "stock-group-commit");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return props.isEnabled();
+    }
+
+    /**
+     * Decreases the stock of every item, all or nothing, like {@link ProductService#batchDecreaseStock},
+     * but committed together with the batches of other callers.
+     */
+    public void decrease(StockUpdateBatchDTO batchDTO) {
+        Pending pending = new Pending(ProductService.quantitiesByProduct(batchDTO), System.nanoTime());
+        if (!running || !queue.offer(pending)) {
+            throw new ServiceUnavailableException("Too many stock updates waiting, please retry");
+        }
+        if (!running && pending.claim()) {
+            // close() drained the queue before this offer
+            throw new ServiceUnavailableException("Stock updates are shutting down, please retry");
+        }
+        Outcome outcome;
+        try {
+            try {
+                outcome = pending.result.get(props.getWindow().plus(props.getCommitTimeout()).toNanos(),
+                        TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (pending.claim()) {
+                    // never picked up, so no group can apply it anymore
+                    handedBack.increment();
+                    outcome = Outcome.HANDED_BACK;
+                } else {
+                    // its group is still committing and may apply it; the group's transaction timeout
+                    // bounds this wait, and only the group knows the outcome
+                    outcome = pending.result.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            // already queued, it may still be applied
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the stock update");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        if (outcome == Outcome.HANDED_BACK) {
+            productService.batchDecreaseStock(batchDTO);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(p -> {
+            if (p.claim()) {
+                p.result.completeExceptionally(
+                        new ServiceUnavailableException("Stock updates are shutting down, please retry"));
+            }
+        });
+    }
+
+    private void run() {
+        List<Pending> group = new ArrayList<>(props.getMaxGroupSize());
+        while (running) {
+            try {
+                Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null || !first.claim()) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = first.queuedAt + props.getWindow().toNanos();
+                while (group.size() < props.getMaxGroupSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (next.claim()) {
+                        group.add(next);
+                    }
+                }
+                apply(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                handBack(group);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Group commit of {} stock updates failed, running them one by one", group.size(), e);
+                handBack(group);
+            }
+            group.clear();
+        }
+    }
+
+    private void apply(List<Pending> group) {
+        long started = System.nanoTime();
+        group.forEach(p -> queueWait.record(started - p.queuedAt, TimeUnit.NANOSECONDS));
+
+        SortedSet<Long> requested = new TreeSet<>();
+        group.forEach(p -> requested.addAll(p.quantities.keySet()));
+        List<Pending> applied = new ArrayList<>(group.size());
+        List<Pending> hot = new ArrayList<>();
+        Map<Pending, String> failed = new IdentityHashMap<>();
+        transactions.executeWithoutResult(status -> {
+            Map<Long, ProductStock> stocks = lockStocks(requested);
+            // first come, first served: a batch either fits completely into what is left or fails
+            SortedMap<Long, Integer> taken = new TreeMap<>();
+            for (Pending pending : group) {
+                List<String> errors = new ArrayList<>();
+                boolean touchesHot = false;
+                for (Map.Entry<Long, Integer> item : pending.quantities.entrySet()) {
+                    ProductStock stock = stocks.get(item.getKey());
+                    if (stock == null) {
+                        errors.add("Product not found for ID: " + item.getKey());
+                    } else if (stock.hot) {
+                        touchesHot = true;
+                    } else if (stock.available < item.getValue()) {
+                        errors.add("Insufficient stock for product ID " + item.getKey()
+                                + ": available " + stock.available + ", requested " + item.getValue());
+                    }
+                }
+                if (touchesHot && errors.isEmpty()) {
+                    hot.add(pending);
+                } else if (!errors.isEmpty()) {
+                    failed.put(pending, "Batch stock decrease failed: " + String.join("; ", errors));
+                } else {
+                    pending.quantities.forEach((id, quantity) -> {
+                        stocks.get(id).available -= quantity;
+                        // never more than the stock that was available, so it fits an int
+                        taken.merge(id, quantity, Integer::sum);
+                    });
+                    applied.add(pending);
+                }
+            }
+            List<Object[]> args = new ArrayList<>(taken.size());
+            taken.forEach((id, quantity) -> args.add(new Object[]{quantity, id, quantity}));
+            for (int updated : jdbcTemplate.batchUpdate(UPDATE_SQL, args)) {
+                if (updated == 0) {
+                    // the rows are locked, so this is a bug rather than a race; roll back the whole group
+                    throw new IllegalStateException("Locked stock changed during a group commit");
+                }
+            }
+        });
+        commitTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        groupSize.record(applied.size());
+
+        applied.forEach(p -> p.result.complete(Outcome.APPLIED));
+        failed.forEach((p, message) -> p.result.completeExceptionally(new ServiceException(message)));
+        handBack(hot);
+    }
+
+    private Map<Long, ProductStock> lockStocks(Iterable<Long> ids) {
+        List<Object> args = new ArrayList<>();
+        ids.forEach(args::add);
+        String placeholders = String.join(", ", Collections.nCopies(args.size(), "?"));
+        Map<Long, ProductStock> stocks = new HashMap<>();
+        // in id order, like every other writer of several products
+        jdbcTemplate.query("SELECT id, stock, stock_shards FROM products WHERE id IN (" + placeholders + ")"
+                        + " AND deleted = false ORDER BY id FOR UPDATE",
+                (ResultSet rs) -> {
+                    stocks.put(rs.getLong(1), new ProductStock(rs.getInt(2), rs.getInt(3) > 0));
+                },
+                args.toArray());
+        return stocks;
+    }
+
+    private void handBack(List<Pending> pending) {
+        pending.forEach(p -> {
+            if (p.result.complete(Outcome.HANDED_BACK)) {
+                handedBack.increment();
+            }
+        });
+    }
+
+    private enum Outcome { APPLIED, HANDED_BACK }
+
+    // claimed once, by the flusher that applies it or by whoever gives up on it
+    private record Pending(SortedMap<Long, Integer> quantities, long queuedAt, CompletableFuture<Outcome> result,
+                           AtomicBoolean claimed) {
+        Pending(SortedMap<Long, Integer> quantities, long queuedAt) {
+            this(quantities, queuedAt, new CompletableFuture<>(), new AtomicBoolean());
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    // stock left for the batches still to be checked in this group
+    private static final class ProductStock {
+        private final boolean hot;
+        private int available;
+
+        ProductStock(int available, boolean hot) {
+            this.available = available;
+            this.hot = hot;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.commerce.product.service;
+
+import com.commerce.common.dto.StockReservationDTO;
+import com.commerce.common.dto.StockReservationRequestDTO;
+import com.commerce.common.dto.StockUpdateBatchDTO;
+import com.commerce.common.exception.ConflictException;
+import com.commerce.common.exception.ValidationException;
+import com.commerce.common.util.TimingWheel;
+import com.commerce.product.config.ReservationProperties;
+import com.commerce.product.models.StockReservationDAO;
+import com.commerce.product.repository.ProductRepository;
+import com.commerce.product.repository.StockReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Holds stock for an order while it is being paid for.
+ * <p>
+ * Reserving takes the units off the product's stock right away, with the same conditional update as a
+ * sale, so there is no gap between checking availability and taking the stock, and the stock column
+ * stays the available-to-sell count. Committing keeps the units sold; releasing puts them back.
+ * <p>
+ * Holds nobody commits or releases expire after their TTL. Every hold is scheduled on a timing wheel,
+ * which hands back only the orders that are due, so expiry never scans the reservations table.
+ * At startup the holds that have not expired yet are put on the wheel, to pick up holds made before
+ * a restart.
+ * <p>
+ * The wheel only knows the holds of its own instance. A hold whose instance died is released by a
+ * fallback sweep every instance runs at startup and then every 5 minutes: it reads the expired rows
+ * through the expires_at index and skips rows another instance has locked. Such a hold outlives its
+ * TTL by one sweep interval at most.
+ * <p>
+ * A hold belongs to the user who reserved it; nobody else can reserve again for the order, commit or
+ * release it.
+ */
+@Service
+@Slf4j
+public class StockReservationService {
+    private static final long TICK_MILLIS = 1000;
+    private static final long SWEEP_MILLIS = 300_000;
+    private static final int SWEEP_BATCH = 500;
+
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final StockShardService stockShards;
+    private final StockReservationRepository reservationRepository;
+    private final ReservationProperties props;
+    private final TransactionTemplate transactions;
+    private final Clock clock;
+    private final TimingWheel<Long> expiries;
+    private final Counter expired;
+
+    public StockReservationService(ProductService productService, ProductRepository productRepository,
+                                   StockShardService stockShards, StockReservationRepository reservationRepository,
+                                   ReservationProperties props, PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this(productService, productRepository, stockShards, reservationRepository, props, transactionManager,
+                meterRegistry, Clock.systemUTC());
+    }
+
+    StockReservationService(ProductService productService, ProductRepository productRepository,
+                            StockShardService stockShards, StockReservationRepository reservationRepository,
+                            ReservationProperties props, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry, Clock clock) {
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.stockShards = stockShards;
+        this.reservationRepository = reservationRepository;
+        this.props = props;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.expiries = new TimingWheel<>(TICK_MILLIS, clock.millis());
+        Gauge.builder("product.reservations.scheduled", expiries, TimingWheel::size)
+                .description("Stock reservations waiting for their expiry check")
+                .register(meterRegistry);
+        this.expired = Counter.builder("product.reservations.expired")
+                .description("Stock reservations released because their TTL ran out")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void schedulePending() {
+        reservationRepository.findPending(clock.instant())
+                .forEach(pending -> schedule(pending.getOrderId(), pending.getExpiresAt()));
+        // holds that expired while no instance was running
+        sweepExpired();
+    }
+
+    /**
+     * Holds the requested stock for the order, or fails without holding anything. Reserving again for
+     * an order that still holds stock returns the existing hold, so the call can be retried safely.
+     */
+    @Transactional
+    public StockReservationDTO reserve(StockReservationRequestDTO request, Long customerId) {
+        if (request.getOrderId() == null || request.getItems() == null || request.getItems().isEmpty()) {
+            throw new ValidationException("A reservation needs an order id and at least one item");
+        }
+        Duration ttl = request.getTtlSeconds() == null
+                ? props.getDefaultTtl()
+                : Duration.ofSeconds(request.getTtlSeconds());
+        if (ttl.compareTo(Duration.ofSeconds(1)) < 0 || ttl.compareTo(props.getMaxTtl()) > 0) {
+            throw new ValidationException("TTL must be between 1 and " + props.getMaxTtl().toSeconds() + " seconds");
+        }
+
+        Long orderId = request.getOrderId();
+        Instant now = clock.instant();
+        List<StockReservationDAO> held = reservationRepository.findByOrderIdOrderByProductIdAsc(orderId);
+        requireOwner(held, orderId, customerId);
+        if (!held.isEmpty() && held.get(0).getExpiresAt().isAfter(now)) {
+            return toDto(orderId, held.get(0).getExpiresAt());
+        }
+        // expired, but not reaped yet
+        restock(held);
+
+        productService.batchDecreaseStock(StockUpdateBatchDTO.builder().items(request.getItems()).build());
+        SortedMap<Long, Integer> quantities = ProductService.quantitiesByProduct(
+                StockUpdateBatchDTO.builder().items(request.getItems()).build());
+        // the database keeps microseconds at most, a retry must see the same expiry as the first call
+        Instant expiresAt = now.plus(ttl).truncatedTo(ChronoUnit.MILLIS);
+        List<StockReservationDAO> rows = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> e : quantities.entrySet()) {
+            rows.add(StockReservationDAO.builder()
+                    .orderId(orderId)
+                    .productId(e.getKey())
+                    .customerId(customerId)
+                    .quantity(e.getValue())
+                    .expiresAt(expiresAt)
+                    .build());
+        }
+        reservationRepository.saveAll(rows);
+        schedule(orderId, expiresAt);
+        return toDto(orderId, expiresAt);
+    }
+
+    /**
+     * Turns the order's hold into a sale: the units stay off the stock for good.
+     */
+    @Transactional
+    public void commit(Long orderId, Long customerId) {
+        List<StockReservationDAO> held = reservationRepository.findByOrderIdOrderByProductIdAsc(orderId);
+        if (held.isEmpty()) {
+            throw new ConflictException("No stock reserved for order " + orderId);
+        }
+        requireOwner(held, orderId, customerId);
+        if (!held.get(0).getExpiresAt().isAfter(clock.instant())) {
+            throw new ConflictException("Stock reservation for order " + orderId + " has expired");
+        }
+        reservationRepository.deleteAllInBatch(held);
+    }
+
+    /**
+     * Puts the stock held for the order back. Releasing an order without a hold does nothing.
+     */
+    @Transactional
+    public void release(Long orderId, Long customerId) {
+        List<StockReservationDAO> held = reservationRepository.findByOrderIdOrderByProductIdAsc(orderId);
+        requireOwner(held, orderId, customerId);
+        restock(held);
+    }
+
+    private static void requireOwner(List<StockReservationDAO> held, Long orderId, Long customerId) {
+        if (!held.isEmpty() && !Objects.equals(held.get(0).getCustomerId(), customerId)) {
+            throw new ValidationException("Stock for order " + orderId + " is reserved by another user");
+        }
+    }
+
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void expireDue() {
+        // collected first: expiring goes to the database, and the wheel is locked while it advances
+        List<Long> due = new ArrayList<>();
+        expiries.advance(clock.millis(), due::add);
+        for (Long orderId : due) {
+            try {
+                transactions.executeWithoutResult(status -> expire(orderId));
+            } catch (RuntimeException e) {
+                log.error("Failed to expire stock reservation for order {}, retrying", orderId, e);
+                expiries.schedule(orderId, clock.millis() + TICK_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Fallback for holds orphaned by an instance that stopped before their expiry: releases every expired
+     * hold, a batch of rows per transaction. The timing wheel releases the others long before this runs.
+     */
+    @Scheduled(fixedDelay = SWEEP_MILLIS, initialDelay = SWEEP_MILLIS)
+    public void sweepExpired() {
+        try {
+            Integer swept;
+            do {
+                swept = transactions.execute(status -> sweep());
+            } while (swept != null && swept == SWEEP_BATCH);
+        } catch (RuntimeException e) {
+            log.error("Failed to sweep expired stock reservations, retrying on the next sweep", e);
+        }
+    }
+
+    private int sweep() {
+        List<StockReservationDAO> held = reservationRepository.lockExpired(clock.instant(), SWEEP_BATCH);
+        restock(held);
+        long orders = held.stream().map(StockReservationDAO::getOrderId).distinct().count();
+        if (orders > 0) {
+            expired.increment(orders);
+            log.info("Swept {} expired stock reservations of {} orders", held.size(), orders);
+        }
+        return held.size();
+    }
+
+    private void expire(Long orderId) {
+        List<StockReservationDAO> held = reservationRepository.findByOrderIdOrderByProductIdAsc(orderId);
+        // committed, released, or reserved again since this expiry was scheduled
+        if (held.isEmpty() || held.get(0).getExpiresAt().isAfter(clock.instant())) {
+            return;
+        }
+        restock(held);
+        expired.increment();
+        log.info("Stock reservation for order {} expired, released {} products", orderId, held.size());
+    }
+
+    private void restock(List<StockReservationDAO> held) {
+        if (held.isEmpty()) {
+            return;
+        }
+        reservationRepository.deleteAllInBatch(held);
+        // in id order, like the batch that took the stock
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        held.forEach(reservation -> quantities.merge(reservation.getProductId(), reservation.getQuantity(),
+                Math::addExact));
+        int[] updated = productRepository.incrementStocks(quantities);
+        int i = 0;
+        for (Map.Entry<Long, Integer> e : quantities.entrySet()) {
+            if (updated[i++] == 0) {
+                int shards = productRepository.findStockShardsById(e.getKey()).orElse(0);
+                if (shards > 0) {
+                    stockShards.increment(e.getKey(), shards, e.getValue());
+                }
+            }
+        }
+    }
+
+    private void schedule(Long orderId, Instant expiresAt) {
+        // a deadline that is already due goes on the next tick
+        expiries.schedule(orderId, Math.max(expiresAt.toEpochMilli(), clock.millis() + TICK_MILLIS));
+    }
+
+    private static StockReservationDTO toDto(Long orderId, Instant expiresAt) {
+        return StockReservationDTO.builder()
+                .orderId(orderId)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
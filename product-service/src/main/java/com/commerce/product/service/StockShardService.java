@@ -0,0 +1,159 @@
+package com.commerce.product.service;
+
+import com.commerce.common.exception.ResourceNotFoundException;
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stock of hot products, split over several rows of product_stock_shards.
+ * <p>
+ * A product sold by many buyers at once turns its products row into a queue: every decrement waits
+ * for the previous transaction to release the row lock. In hot mode the stock is spread over N shards
+ * and every buyer starts at a random one, so up to N buyers hold locks side by side. The products row
+ * keeps a stock of 0 while the product is hot; {@link com.commerce.product.models.ProductDAO#getStock()}
+ * adds up the shards on read.
+ */
+@Service
+public class StockShardService {
+    public static final int MIN_SHARDS = 2;
+    public static final int MAX_SHARDS = 64;
+
+    private static final String DECREMENT_SHARD_SQL =
+            "UPDATE product_stock_shards SET stock = stock - ? WHERE product_id = ? AND shard = ? AND stock >= ?";
+    private static final String INCREMENT_SHARD_SQL =
+            "UPDATE product_stock_shards SET stock = stock + ? WHERE product_id = ? AND shard = ?";
+    private static final String INCREMENT_PRODUCT_SQL = "UPDATE products SET stock = stock + ? WHERE id = ?";
+    private static final String LOCK_PRODUCT_SQL = "SELECT stock FROM products WHERE id = ? FOR UPDATE";
+    private static final int SINGLE_SHARD_ATTEMPTS = 3;
+    private static final RowMapper<int[]> SHARD_ROW = (rs, rowNum) -> new int[]{rs.getInt(1), rs.getInt(2)};
+
+    private static final String SHARD_STOCKS_SQL = "SELECT shard, stock FROM product_stock_shards WHERE product_id = ?";
+    // always in shard order, so two transactions locking all shards of a product cannot deadlock
+    private static final String LOCK_SHARDS_SQL =
+            "SELECT shard, stock FROM product_stock_shards WHERE product_id = ? ORDER BY shard FOR UPDATE";
+    private static final String DELETE_SHARDS_SQL = "DELETE FROM product_stock_shards WHERE product_id = ?";
+    private static final String INSERT_SHARD_SQL =
+            "INSERT INTO product_stock_shards (product_id, shard, stock, deleted) VALUES (?, ?, ?, false)";
+    private static final String SET_PRODUCT_STOCK_SQL =
+            "UPDATE products SET stock = ?, stock_shards = ?, version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockShardService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes {@code quantity} from the shards of a hot product, or returns false if they do not hold
+     * that much together. A shard that covers the whole quantity is preferred; only if there is none
+     * are all shards locked and the quantity taken from several of them.
+     */
+    @Transactional
+    public boolean decrement(Long productId, int shards, int quantity) {
+        // shards are picked from an unlocked read; only a decrement that lost a race for its shard reads again
+        for (int attempt = 0; attempt < SINGLE_SHARD_ATTEMPTS; attempt++) {
+            List<Integer> candidates = new ArrayList<>(shards);
+            int available = 0;
+            for (int[] shard : jdbcTemplate.query(SHARD_STOCKS_SQL, SHARD_ROW, productId)) {
+                available += shard[1];
+                if (shard[1] >= quantity) {
+                    candidates.add(shard[0]);
+                }
+            }
+            if (available < quantity) {
+                return false;
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+            int start = ThreadLocalRandom.current().nextInt(candidates.size());
+            for (int i = 0; i < candidates.size(); i++) {
+                int shard = candidates.get((start + i) % candidates.size());
+                if (jdbcTemplate.update(DECREMENT_SHARD_SQL, quantity, productId, shard, quantity) == 1) {
+                    return true;
+                }
+            }
+        }
+
+        List<int[]> locked = lockShards(productId);
+        int available = 0;
+        for (int[] shard : locked) {
+            available += shard[1];
+        }
+        if (available < quantity) {
+            return false;
+        }
+        int remaining = quantity;
+        for (int[] shard : locked) {
+            int take = Math.min(shard[1], remaining);
+            if (take > 0) {
+                jdbcTemplate.update(DECREMENT_SHARD_SQL, take, productId, shard[0], take);
+                remaining -= take;
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds {@code quantity} to a random shard of a hot product.
+     */
+    @Transactional
+    public void increment(Long productId, int shards, int quantity) {
+        int shard = ThreadLocalRandom.current().nextInt(shards);
+        if (jdbcTemplate.update(INCREMENT_SHARD_SQL, quantity, productId, shard) == 0) {
+            // hot mode was switched off in the meantime
+            jdbcTemplate.update(INCREMENT_PRODUCT_SQL, quantity, productId);
+        }
+    }
+
+    /**
+     * Moves the whole stock of a product, including any shards it already has, into {@code shards} shards.
+     */
+    @Transactional
+    public void split(Long productId, int shards) {
+        int total = lockTotal(productId);
+        jdbcTemplate.update(DELETE_SHARDS_SQL, productId);
+        List<Object[]> rows = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            rows.add(new Object[]{productId, shard, total / shards + (shard < total % shards ? 1 : 0)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SHARD_SQL, rows);
+        jdbcTemplate.update(SET_PRODUCT_STOCK_SQL, 0, shards, productId);
+    }
+
+    /**
+     * Moves the stock of all shards back onto the products row and ends hot mode.
+     */
+    @Transactional
+    public void merge(Long productId) {
+        int total = lockTotal(productId);
+        jdbcTemplate.update(DELETE_SHARDS_SQL, productId);
+        jdbcTemplate.update(SET_PRODUCT_STOCK_SQL, total, 0, productId);
+    }
+
+    // the product row first: decrements of a non-hot product and resharding serialize on it
+    private int lockTotal(Long productId) {
+        List<Integer> stock = jdbcTemplate.queryForList(LOCK_PRODUCT_SQL, Integer.class, productId);
+        if (stock.isEmpty()) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        int total = stock.get(0);
+        for (int[] shard : lockShards(productId)) {
+            total += shard[1];
+        }
+        return total;
+    }
+
+    private List<int[]> lockShards(Long productId) {
+        return jdbcTemplate.query(LOCK_SHARDS_SQL, SHARD_ROW, productId);
+    }
+}
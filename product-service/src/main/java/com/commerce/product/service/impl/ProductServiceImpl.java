@@ -1,68 +1,121 @@
 package com.commerce.product.service.impl;
 
+import com.commerce.common.dto.CursorPageDTO;
 import com.commerce.common.dto.IdsDTO;
 import com.commerce.common.dto.ProductResponseDTO;
 import com.commerce.common.dto.StockUpdateBatchDTO;
 import com.commerce.common.exception.ConflictException;
 import com.commerce.common.exception.ResourceNotFoundException;
+import com.commerce.common.exception.ValidationException;
+import com.commerce.common.util.PageCursor;
+import com.commerce.product.config.ProductListingProperties;
 import com.commerce.product.dtos.ProductCreateDTO;
+import com.commerce.product.dtos.ProductMapper;
 import com.commerce.product.dtos.ProductUpdateDTO;
 import com.commerce.product.models.ProductDAO;
 import com.commerce.product.repository.ProductRepository;
+import com.commerce.product.repository.ProductSummary;
+import com.commerce.product.service.ProductChangeFeed;
+import com.commerce.product.service.ProductETags;
+import com.commerce.product.service.ProductIdLookup;
+import com.commerce.product.service.ProductSearchService;
 import com.commerce.product.service.ProductService;
+import com.commerce.product.service.StockShardService;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.service.spi.ServiceException;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
-    private final ModelMapper modelMapper;
+    private final ProductMapper productMapper;
+    private final StockShardService stockShards;
+    private final ProductSearchService productSearch;
+    private final ProductListingProperties listingProps;
+    private final ProductChangeFeed changeFeed;
+    private final ProductIdLookup idLookup;
 
-    public ProductServiceImpl(ProductRepository r, ModelMapper modelMapper) {
+    public ProductServiceImpl(ProductRepository r, ProductMapper productMapper, StockShardService stockShards,
+                              ProductSearchService productSearch, ProductListingProperties listingProps,
+                              ProductChangeFeed changeFeed, ProductIdLookup idLookup) {
         this.productRepository = r;
-        this.modelMapper = modelMapper;
+        this.productMapper = productMapper;
+        this.stockShards = stockShards;
+        this.productSearch = productSearch;
+        this.listingProps = listingProps;
+        this.changeFeed = changeFeed;
+        this.idLookup = idLookup;
     }
 
+    @Transactional
     @Override
     public ProductDAO create(ProductCreateDTO productCreateDTO) {
         // Check if product with same name/sku already exists
-        if (productRepository.existsByName(productCreateDTO.getName())) {
+        if (productRepository.existsByNameAndDeletedFalse(productCreateDTO.getName())) {
             throw new ConflictException("Product with this name already exists");
         }
 
-        ProductDAO u = modelMapper.map(productCreateDTO, ProductDAO.class);
+        ProductDAO u = productMapper.toEntity(productCreateDTO);
+        u.setChangeSeq(changeFeed.next());
         log.info("Creating product: {}", u);
-        return productRepository.save(u);
+        ProductDAO saved = productRepository.save(u);
+        afterCommit(() -> productSearch.index(saved));
+        return saved;
     }
 
     /*@Override
     public ProductDAO find(Long id) {
         return productRepository.findById(id)
+                .filter(product -> !product.isDeleted())
                 .orElseThrow(() -> new ServiceException("Product not found"));
     }*/
     @Override
     public ProductDAO find(Long id) {
         return productRepository.findById(id)
+                .filter(product -> !product.isDeleted())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
     }
 
     @Override
     public ResponseEntity<List<ProductResponseDTO>> findProducts(IdsDTO idsDTO) {
-        List<ProductDAO> productDAOS = productRepository.findProductByIdIn(idsDTO.getIds());
+        List<ProductDAO> productDAOS = idLookup.find(idsDTO.getIds(), productRepository::findProductByIdIn);
         List<ProductResponseDTO> responseDTOS = productDAOS.stream()
-                .map(product -> modelMapper.map(product, ProductResponseDTO.class))
+                .map(productMapper::toResponse)
                 .toList();
-        return ResponseEntity.ok(responseDTOS);
+        // tagged from the entities that were mapped, so the tag always describes this body
+        return ResponseEntity.ok()
+                .eTag(ProductETags.ofProducts(productDAOS))
+                .body(responseDTOS);
+    }
+
+    @Override
+    public Optional<String> etag(Long id) {
+        return productRepository.findVersionsByIdIn(List.of(id)).stream()
+                .filter(version -> !version.isDeleted())
+                .findFirst()
+                .map(ProductETags::of);
+    }
+
+    @Override
+    public String etag(Collection<Long> ids) {
+        return ProductETags.ofVersions(idLookup.find(ids, productRepository::findVersionsByIdIn));
     }
 
 
@@ -72,79 +125,242 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public ProductDAO decreaseStock(Long productId, int quantity) {
-        ProductDAO productDAO = productRepository.findById(productId)
-                .orElseThrow(() -> new ServiceException("Product not found"));
+    public CursorPageDTO<ProductSummary> list(String cursor, Integer size, String sort) {
+        int pageSize = size == null ? listingProps.getDefaultPageSize() : size;
+        if (pageSize < 1 || pageSize > listingProps.getMaxPageSize()) {
+            throw new ValidationException("Page size must be between 1 and " + listingProps.getMaxPageSize());
+        }
+        boolean first = cursor == null || cursor.isBlank();
 
-        if (productDAO.getStock() < quantity) {
+        // one extra row tells whether there is a next page without a count query
+        Limit limit = Limit.of(pageSize + 1);
+        List<ProductSummary> rows;
+        Function<ProductSummary, String> cursorOf;
+        switch (sort == null ? "id" : sort.toLowerCase(Locale.ROOT)) {
+            case "id" -> {
+                rows = productRepository.findSummariesAfterId(first ? 0 : PageCursor.decodeId(cursor), limit);
+                cursorOf = p -> PageCursor.encode(p.getId());
+            }
+            case "name" -> {
+                if (first) {
+                    rows = productRepository.findSummariesByName(limit);
+                } else {
+                    List<String> keys = PageCursor.decode(cursor, 2);
+                    rows = productRepository.findSummariesAfterName(keys.get(1), parseKey(keys.get(0), Long::valueOf),
+                            limit);
+                }
+                cursorOf = p -> PageCursor.encode(p.getId(), p.getName());
+            }
+            case "price" -> {
+                if (first) {
+                    rows = productRepository.findSummariesByPrice(limit);
+                } else {
+                    List<String> keys = PageCursor.decode(cursor, 2);
+                    rows = productRepository.findSummariesAfterPrice(parseKey(keys.get(1), BigDecimal::new),
+                            parseKey(keys.get(0), Long::valueOf), limit);
+                }
+                cursorOf = p -> PageCursor.encode(p.getId(), p.getPrice().toPlainString());
+            }
+            default -> throw new ValidationException("Sort must be one of id, name, price");
+        }
+        boolean hasNext = rows.size() > pageSize;
+        List<ProductSummary> items = hasNext ? rows.subList(0, pageSize) : rows;
+        return CursorPageDTO.<ProductSummary>builder()
+                .items(items)
+                .nextCursor(hasNext ? cursorOf.apply(items.get(items.size() - 1)) : null)
+                .build();
+    }
+
+    private static <T> T parseKey(String key, Function<String, T> parser) {
+        try {
+            return parser.apply(key);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    @Transactional
+    @Override
+    public ProductDAO decreaseStock(Long productId, int quantity) {
+        requirePositive(quantity);
+        if (productRepository.decrementStock(productId, quantity) == 0 && !decrementShards(productId, quantity)) {
+            ProductDAO productDAO = productRepository.findById(productId)
+                    .filter(product -> !product.isDeleted())
+                    .orElseThrow(() -> new ServiceException("Product not found"));
             log.error("Insufficient stock for product ID {}: available {}, requested {}",
                     productId, productDAO.getStock(), quantity);
             throw new ServiceException(
                     "Available stock: " + productDAO.getStock() + ", requested: " + quantity
             );
         }
-        productDAO.setStock(productDAO.getStock() - quantity);
-        return productRepository.save(productDAO);
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new ServiceException("Product not found"));
     }
 
+    private static void requirePositive(int quantity) {
+        if (quantity <= 0) {
+            throw new ValidationException("Quantity must be positive");
+        }
+    }
+
+    // a hot product keeps no stock on its products row, the conditional update above always misses it
+    private boolean decrementShards(Long productId, int quantity) {
+        int shards = productRepository.findStockShardsById(productId).orElse(0);
+        return shards > 0 && stockShards.decrement(productId, shards, quantity);
+    }
+
+    @Transactional
     @Override
     public ProductDAO increaseStock(Long productId, int quantity) {
-        ProductDAO productDAO = productRepository.findById(productId)
+        requirePositive(quantity);
+        if (productRepository.incrementStock(productId, quantity) == 0 && !incrementShards(productId, quantity)) {
+            throw new ServiceException("Product not found");
+        }
+        return productRepository.findById(productId)
                 .orElseThrow(() -> new ServiceException("Product not found"));
-        if (productDAO.getStock() < quantity) {
-            throw new ServiceException(
-                    "Available stock: " + productDAO.getStock() + ", requested: " + quantity
-            );
+    }
+
+    // the conditional update misses a hot product; false if there is no such product or it is deleted
+    private boolean incrementShards(Long productId, int quantity) {
+        Optional<Integer> shards = productRepository.findStockShardsById(productId);
+        if (shards.isEmpty()) {
+            return false;
         }
-        productDAO.setStock(productDAO.getStock() + quantity);
-        return productRepository.save(productDAO);
+        if (shards.get() > 0) {
+            stockShards.increment(productId, shards.get(), quantity);
+            return true;
+        }
+        // hot mode ended between the update and the lookup, or the product is deleted and never was hot
+        return productRepository.incrementStock(productId, quantity) > 0;
     }
 
+    @Transactional
     @Override
     public ProductDAO update(ProductUpdateDTO productUpdateDTO) {
+        long changeSeq = changeFeed.next();
         ProductDAO pro = productRepository.findById(productUpdateDTO.id())
+                .filter(product -> !product.isDeleted())
                 .orElseThrow(() -> new ServiceException("Product not found"));
-        modelMapper.map(productUpdateDTO, pro);
-        return productRepository.save(pro);
+        if (pro.getStockShards() > 0) {
+            // the stock of a hot product is spread over its shards and only moves through increase/decrease
+            if (productUpdateDTO.stock() != pro.getStock()) {
+                throw new ConflictException("Stock of a hot product cannot be set, disable hot mode first");
+            }
+            pro.setName(productUpdateDTO.name());
+            pro.setPrice(productUpdateDTO.price());
+        } else {
+            productMapper.update(productUpdateDTO, pro);
+        }
+        pro.setChangeSeq(changeSeq);
+        // flushed, so a concurrent update fails here rather than at commit
+        ProductDAO saved = productRepository.saveAndFlush(pro);
+        afterCommit(() -> productSearch.index(saved));
+        return saved;
     }
 
     @Transactional
     @Override
-    public ResponseEntity<Void> batchDecreaseStock(StockUpdateBatchDTO batchDTO) {
-        List<Long> productIds = batchDTO.getItems().stream()
-                .map(StockUpdateBatchDTO.StockUpdateItem::getProductId)
-                .toList();
-
-        // Fetch all products at once
-        List<ProductDAO> productDAOS = productRepository.findProductByIdIn(productIds);
+    public void delete(Long productId) {
+        long changeSeq = changeFeed.next();
+        if (productRepository.findStockShardsById(productId).orElse(0) > 0) {
+            // shard decrements do not look at the products row, so a deleted product must not stay hot
+            stockShards.merge(productId);
+        }
+        ProductDAO product = find(productId);
+        product.setDeleted(true);
+        product.setChangeSeq(changeSeq);
+        productRepository.saveAndFlush(product);
+        afterCommit(() -> productSearch.remove(productId));
+    }
 
-        // Create a map for an easy lookup
-        Map<Long, ProductDAO> productMap = productDAOS.stream()
-                .collect(Collectors.toMap(ProductDAO::getId, product -> product));
+    @Transactional
+    @Override
+    public ProductDAO enableHotMode(Long productId, int shards) {
+        if (shards < StockShardService.MIN_SHARDS || shards > StockShardService.MAX_SHARDS) {
+            throw new ValidationException("Shards must be between " + StockShardService.MIN_SHARDS
+                    + " and " + StockShardService.MAX_SHARDS);
+        }
+        stockShards.split(productId, shards);
+        return find(productId);
+    }
 
-        // Validate and update stock for all items
-        List<String> errors = new ArrayList<>();
+    @Transactional
+    @Override
+    public ProductDAO disableHotMode(Long productId) {
+        stockShards.merge(productId);
+        return find(productId);
+    }
 
-        for (StockUpdateBatchDTO.StockUpdateItem item : batchDTO.getItems()) {
-            ProductDAO productDAO = productMap.get(item.getProductId());
-            if (productDAO == null) {
-                errors.add("Product not found for ID: " + item.getProductId());
-                continue;
+    @Transactional
+    @Override
+    public ResponseEntity<Void> batchDecreaseStock(StockUpdateBatchDTO batchDTO) {
+        // one update per product, even if the batch names it more than once
+        SortedMap<Long, Integer> quantities = ProductService.quantitiesByProduct(batchDTO);
+        int[] updated = productRepository.decrementStocks(quantities);
+        List<Long> failed = new ArrayList<>();
+        int i = 0;
+        for (Long productId : quantities.keySet()) {
+            if (updated[i++] == 0) {
+                failed.add(productId);
             }
+        }
+        if (failed.isEmpty()) {
+            return ResponseEntity.ok().build();
+        }
 
-            if (productDAO.getStock() < item.getQuantity()) {
-                errors.add("Insufficient stock for product ID " + item.getProductId() +
-                        ": available " + productDAO.getStock() + ", requested " + item.getQuantity());
+        // only hot products and shortfalls get here; the exception rolls back the rest
+        Map<Long, ProductDAO> productMap = productRepository.findProductByIdIn(failed).stream()
+                .collect(Collectors.toMap(ProductDAO::getId, product -> product));
+        List<String> errors = new ArrayList<>();
+        for (Long productId : failed) {
+            ProductDAO productDAO = productMap.get(productId);
+            if (productDAO == null || productDAO.isDeleted()) {
+                errors.add("Product not found for ID: " + productId);
+            } else if (productDAO.getStockShards() > 0
+                    && stockShards.decrement(productId, productDAO.getStockShards(), quantities.get(productId))) {
                 continue;
+            } else {
+                errors.add("Insufficient stock for product ID " + productId +
+                        ": available " + productDAO.getStock() + ", requested " + quantities.get(productId));
             }
+        }
+        if (errors.isEmpty()) {
+            return ResponseEntity.ok().build();
+        }
+        throw new ServiceException("Batch stock decrease failed: " + String.join("; ", errors));
+    }
 
-            productDAO.setStock(productDAO.getStock() - item.getQuantity());
+    @Transactional
+    @Override
+    public ResponseEntity<Void> batchIncreaseStock(StockUpdateBatchDTO batchDTO) {
+        SortedMap<Long, Integer> quantities = ProductService.quantitiesByProduct(batchDTO);
+        int[] updated = productRepository.incrementStocks(quantities);
+        List<Long> missing = new ArrayList<>();
+        int i = 0;
+        for (Map.Entry<Long, Integer> e : quantities.entrySet()) {
+            // only hot products and unknown ids miss the batch
+            if (updated[i++] == 0 && !incrementShards(e.getKey(), e.getValue())) {
+                missing.add(e.getKey());
+            }
+        }
+        if (missing.isEmpty()) {
+            return ResponseEntity.ok().build();
         }
+        throw new ServiceException("Batch stock increase failed: Product not found for ID: "
+                + missing.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+    }
 
-        if (!errors.isEmpty()) {
-            throw new ServiceException("Batch stock decrease failed: " + String.join("; ", errors));
+    // the search index is shared by every request, so it only learns of a change once it is committed
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
-        productRepository.saveAll(productDAOS);
-        return ResponseEntity.ok().build();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package com.commerce.product.benchmark;
+
+import com.commerce.product.config.ProductLookupProperties;
+import com.commerce.product.service.ProductIdLookup;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of loading products by a list of ids, from a single id up to a 10,000 id bulk request: one IN list
+ * with a parameter per id, the same list padded to the next power of two the way Hibernate pads it, the
+ * padded list split into chunks by {@link ProductIdLookup}, and a single array parameter with
+ * {@code = ANY(?)}.
+ * <p>
+ * Every call asks for a random number of ids between half of {@code ids} and {@code ids}, so an exact list
+ * keeps producing statement texts the database has not prepared before, while a padded one falls on a few.
+ * The database is an in-memory H2; the ratios say more than the absolute numbers.
+ * <p>
+ * Run with: {@code java -cp <test classpath> org.openjdk.jmh.Main ProductByIdsBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductByIdsBenchmark {
+
+    private static final int PRODUCTS = 20_000;
+    private static final String SELECT = "SELECT id, name, price, stock FROM products WHERE ";
+    private static final RowMapper<Long> ID = (rs, rowNum) -> rs.getLong(1);
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    private int ids;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private ProductIdLookup lookup;
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:byids;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(8);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL,"
+                + " price NUMERIC(10, 2) NOT NULL, stock INTEGER NOT NULL)");
+        List<Object[]> rows = new ArrayList<>(PRODUCTS);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            rows.add(new Object[]{id, "Product " + id, id % 100 + 0.99, 100});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, price, stock) VALUES (?, ?, ?, ?)", rows);
+        lookup = new ProductIdLookup(new ProductLookupProperties());
+    }
+
+    @TearDown
+    public void tearDown() {
+        lookup.close();
+        jdbcTemplate.execute("SHUTDOWN");
+        dataSource.close();
+    }
+
+    // the ids of one request, with the duplicates a client may send
+    private List<Long> request() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = ids == 1 ? 1 : random.nextInt(ids / 2, ids + 1);
+        List<Long> request = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            request.add(random.nextLong(1, PRODUCTS + 1));
+        }
+        return request;
+    }
+
+    private List<Long> inList(List<Long> distinct) {
+        return jdbcTemplate.query(SELECT + "id IN (" + String.join(", ", Collections.nCopies(distinct.size(), "?")) + ")",
+                ID, distinct.toArray());
+    }
+
+    private List<Long> paddedInList(List<Long> distinct) {
+        int padded = Integer.highestOneBit(distinct.size());
+        if (padded < distinct.size()) {
+            padded <<= 1;
+        }
+        List<Long> args = new ArrayList<>(padded);
+        args.addAll(distinct);
+        while (args.size() < padded) {
+            args.add(distinct.get(distinct.size() - 1));
+        }
+        return inList(args);
+    }
+
+    @Benchmark
+    public List<Long> exactInList() {
+        return inList(new ArrayList<>(new TreeSet<>(request())));
+    }
+
+    @Benchmark
+    public List<Long> paddedInList() {
+        return paddedInList(new ArrayList<>(new TreeSet<>(request())));
+    }
+
+    @Benchmark
+    public List<Long> chunked() {
+        return lookup.find(request(), this::paddedInList);
+    }
+
+    @Benchmark
+    public List<Long> anyArray() {
+        Long[] distinct = new TreeSet<>(request()).toArray(Long[]::new);
+        return jdbcTemplate.query(SELECT + "id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("BIGINT", distinct)), ID);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductByIdsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
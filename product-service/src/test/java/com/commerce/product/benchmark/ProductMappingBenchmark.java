@@ -0,0 +1,111 @@
+package com.commerce.product.benchmark;
+
+import com.commerce.common.dto.ProductResponseDTO;
+import com.commerce.product.dtos.ProductCreateDTO;
+import com.commerce.product.dtos.ProductMapper;
+import com.commerce.product.dtos.ProductMapperImpl;
+import com.commerce.product.dtos.ProductUpdateDTO;
+import com.commerce.product.models.ProductDAO;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product mappings per second on a single thread: the ModelMapper the services used to map with
+ * against the generated {@link ProductMapper}, for each mapping ProductServiceImpl makes.
+ * <p>
+ * Run with the GC profiler to see the bytes allocated per mapping ({@code gc.alloc.rate.norm}):
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main ProductMappingBenchmark -prof gc}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private ProductMapper productMapper;
+    private ProductDAO product;
+    private ProductCreateDTO createDTO;
+    private ProductUpdateDTO updateDTO;
+
+    @Setup
+    public void setUp() {
+        modelMapper = configuredModelMapper();
+        productMapper = new ProductMapperImpl();
+        product = ProductDAO.builder()
+                .id(42L)
+                .name("Benchmark Product")
+                .price(new BigDecimal("19.99"))
+                .stock(100)
+                .createdBy(1L)
+                .updatedBy(1L)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+        createDTO = new ProductCreateDTO("Benchmark Product", new BigDecimal("19.99"), 100);
+        updateDTO = new ProductUpdateDTO(42L, "Renamed Product", new BigDecimal("24.99"), 80);
+    }
+
+    // configured as the services had it before the generated mappers replaced it
+    private static ModelMapper configuredModelMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setCollectionsMergeEnabled(false)
+                .setSkipNullEnabled(true)
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
+        return modelMapper;
+    }
+
+    @Benchmark
+    public ProductResponseDTO toResponseModelMapper() {
+        return modelMapper.map(product, ProductResponseDTO.class);
+    }
+
+    @Benchmark
+    public ProductResponseDTO toResponseGenerated() {
+        return productMapper.toResponse(product);
+    }
+
+    @Benchmark
+    public ProductDAO fromCreateModelMapper() {
+        return modelMapper.map(createDTO, ProductDAO.class);
+    }
+
+    @Benchmark
+    public ProductDAO fromCreateGenerated() {
+        return productMapper.toEntity(createDTO);
+    }
+
+    @Benchmark
+    public ProductDAO updateModelMapper() {
+        modelMapper.map(updateDTO, product);
+        return product;
+    }
+
+    @Benchmark
+    public ProductDAO updateGenerated() {
+        productMapper.update(updateDTO, product);
+        return product;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,117 @@
+package com.commerce.product.benchmark;
+
+import com.commerce.product.dtos.ProductSearchResultDTO;
+import com.commerce.product.service.ProductSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link ProductSearchIndex} queries over a catalog of one million products, sampled so the
+ * report carries p99 and p99.9 next to the mean.
+ * <p>
+ * Names are built as "brand adjective colour noun model" from fixed vocabularies of made-up words, so
+ * common words hit hundreds of thousands of products and model codes only a few dozen. Queries:
+ * <ul>
+ *   <li>{@code token}: one whole noun</li>
+ *   <li>{@code prefix}: the first two letters of a brand</li>
+ *   <li>{@code twoTokens}: brand and noun of an existing product</li>
+ *   <li>{@code sparse}: two common words that rarely occur together, the worst case for the driver/filter split</li>
+ * </ul>
+ * Run with: {@code java -cp <test classpath> org.openjdk.jmh.Main ProductSearchBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ProductSearchBenchmark {
+
+    private static final int QUERIES = 1024;
+    private static final int LIMIT = 20;
+
+    @Param({"1000000"})
+    private int products;
+
+    @Param({"token", "prefix", "twoTokens", "sparse"})
+    private String kind;
+
+    private ProductSearchIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] brands = words(random, 500);
+        String[] adjectives = words(random, 300);
+        String[] colours = words(random, 50);
+        String[] nouns = words(random, 1000);
+        String[] models = words(random, 20_000);
+
+        index = new ProductSearchIndex();
+        String[][] names = new String[products][];
+        for (int id = 1; id <= products; id++) {
+            String[] name = {
+                    brands[random.nextInt(brands.length)],
+                    adjectives[random.nextInt(adjectives.length)],
+                    colours[random.nextInt(colours.length)],
+                    nouns[random.nextInt(nouns.length)],
+                    models[random.nextInt(models.length)]
+            };
+            names[id - 1] = name;
+            index.put((long) id, String.join(" ", name), BigDecimal.valueOf(id % 10_000, 2));
+        }
+
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String[] name = names[random.nextInt(products)];
+            queries[i] = switch (kind) {
+                case "token" -> name[3];
+                case "prefix" -> name[0].substring(0, 2);
+                case "twoTokens" -> name[0] + " " + name[3];
+                case "sparse" -> colours[random.nextInt(colours.length)] + " " + adjectives[random.nextInt(adjectives.length)]
+                        + " " + brands[random.nextInt(brands.length)];
+                default -> throw new IllegalArgumentException(kind);
+            };
+        }
+    }
+
+    @Benchmark
+    public List<ProductSearchResultDTO> search() {
+        String query = queries[next++ & (QUERIES - 1)];
+        return index.search(query, LIMIT);
+    }
+
+    // distinct pronounceable words, so prefixes spread over the alphabet like real names do
+    private static String[] words(Random random, int count) {
+        String consonants = "bcdfghjklmnprstvwz";
+        String vowels = "aeiou";
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < count) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(2);
+            for (int s = 0; s < syllables; s++) {
+                word.append(consonants.charAt(random.nextInt(consonants.length())));
+                word.append(vowels.charAt(random.nextInt(vowels.length())));
+            }
+            words.add(word.toString());
+        }
+        return words.toArray(String[]::new);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.commerce.product.benchmark;
+
+import com.commerce.product.service.StockShardService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput of concurrent single-unit checkouts of one product: conditional update of its products row
+ * versus the same decrement on a hot product whose stock is split over shards.
+ * <p>
+ * Each checkout is its own transaction and keeps the row locked for {@code holdMicros} after the decrement,
+ * standing in for the rest of the checkout and the commit round trip. The database is an in-memory H2, where
+ * a statement or commit costs next to nothing; the hold time is what makes the lock queue visible.
+ * <p>
+ * Run with: {@code java -cp <test classpath> org.openjdk.jmh.Main StockDecrementBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class StockDecrementBenchmark {
+
+    private static final long SINGLE_ROW_PRODUCT = 1;
+    private static final long HOT_PRODUCT = 2;
+    private static final int STOCK = 1_000_000_000;
+
+    @Param({"0", "200"})
+    private long holdMicros;
+
+    @Param({"16"})
+    private int shards;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactions;
+    private StockShardService stockShards;
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:stock;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=60000;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(32);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, stock INTEGER NOT NULL,"
+                + " stock_shards INTEGER DEFAULT 0 NOT NULL, version BIGINT DEFAULT 0 NOT NULL,"
+                + " deleted BOOLEAN DEFAULT FALSE)");
+        jdbcTemplate.execute("CREATE TABLE product_stock_shards (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+                + " product_id BIGINT NOT NULL, shard INTEGER NOT NULL, stock INTEGER NOT NULL,"
+                + " deleted BOOLEAN DEFAULT FALSE, UNIQUE (product_id, shard))");
+        jdbcTemplate.update("INSERT INTO products (id, stock) VALUES (?, ?), (?, ?)",
+                SINGLE_ROW_PRODUCT, STOCK, HOT_PRODUCT, STOCK);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        stockShards = new StockShardService(jdbcTemplate);
+        transactions.executeWithoutResult(status -> stockShards.split(HOT_PRODUCT, shards));
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+        dataSource.close();
+    }
+
+    @Benchmark
+    public void singleRow() {
+        transactions.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ? AND deleted = false",
+                    1, SINGLE_ROW_PRODUCT, 1);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(holdMicros));
+        });
+    }
+
+    @Benchmark
+    public void striped() {
+        transactions.executeWithoutResult(status -> {
+            stockShards.decrement(HOT_PRODUCT, shards, 1);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(holdMicros));
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StockDecrementBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,73 @@
+package com.commerce.product.service;
+
+import com.commerce.product.models.ProductDAO;
+import com.commerce.product.repository.ProductVersion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductETagsTest {
+
+    @Test
+    void of_SameForEntityAndVersionRow() {
+        // Arrange
+        ProductDAO product = product(1L, 3, 40);
+
+        // Act & Assert
+        assertEquals("\"3-40\"", ProductETags.of(product));
+        assertEquals(ProductETags.of(product), ProductETags.of(version(1L, 3, 40)));
+    }
+
+    @Test
+    void ofProducts_IgnoresOrderAndMatchesVersionRows() {
+        // Act
+        String tag = ProductETags.ofProducts(List.of(product(2L, 1, 5), product(1L, 0, 7)));
+
+        // Assert
+        assertEquals(tag, ProductETags.ofProducts(List.of(product(1L, 0, 7), product(2L, 1, 5))));
+        assertEquals(tag, ProductETags.ofVersions(List.of(version(1L, 0, 7), version(2L, 1, 5))));
+        assertNotEquals(tag, ProductETags.ofVersions(List.of(version(1L, 0, 6), version(2L, 1, 5))));
+    }
+
+    @Test
+    void matches_ComparesWeaklyAgainstEveryListedTag() {
+        // Act & Assert
+        assertTrue(ProductETags.matches("\"3-40\"", "\"3-40\""));
+        assertTrue(ProductETags.matches("\"1-1\", W/\"3-40\"", "\"3-40\""));
+        assertTrue(ProductETags.matches("*", "\"3-40\""));
+        assertFalse(ProductETags.matches("\"3-39\"", "\"3-40\""));
+        assertFalse(ProductETags.matches(null, "\"3-40\""));
+    }
+
+    private static ProductDAO product(Long id, long version, int stock) {
+        ProductDAO product = ProductDAO.builder().version(version).stock(stock).build();
+        product.setId(id);
+        return product;
+    }
+
+    private static ProductVersion version(Long id, long version, int stock) {
+        return new ProductVersion() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public long getVersion() {
+                return version;
+            }
+
+            @Override
+            public int getStock() {
+                return stock;
+            }
+
+            @Override
+            public boolean isDeleted() {
+                return false;
+            }
+        };
+    }
+}
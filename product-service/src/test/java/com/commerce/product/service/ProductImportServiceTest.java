@@ -0,0 +1,187 @@
+package com.commerce.product.service;
+
+import com.commerce.common.exception.ValidationException;
+import com.commerce.product.config.ProductImportProperties;
+import com.commerce.product.config.ProductListingProperties;
+import com.commerce.product.dtos.ProductImportResultDTO;
+import com.commerce.product.dtos.ProductSearchResultDTO;
+import com.commerce.product.models.ProductDAO;
+import com.commerce.product.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:imports;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = ProductImportServiceTest.JpaConfig.class)
+class ProductImportServiceTest {
+
+    @Configuration
+    @EntityScan(basePackageClasses = ProductDAO.class)
+    @EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+    @Import({ProductImportService.class, ProductSearchService.class, ProductChangeFeed.class,
+            ProductImportProperties.class, ProductListingProperties.class})
+    static class JpaConfig {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+
+        @Bean
+        AuditorAware<Long> auditorProvider() {
+            return () -> Optional.of(7L);
+        }
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ProductSearchService productSearch;
+
+    @Autowired
+    private ProductImportProperties props;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        props.setBatchSize(2);
+    }
+
+    @Test
+    void importCsv_InsertsNewNamesAndReportsRowErrors() {
+        // Arrange
+        productRepository.save(ProductDAO.builder().name("Existing Lamp").price(BigDecimal.ONE).stock(1).build());
+        String csv = """
+                stock,name,price
+                5,"Desk, oak",120.50
+                3,Existing Lamp,10
+
+                2,Chair,abc
+                9,"Desk, oak",99
+                1,Ok,5
+                4,Stool,15
+                """;
+
+        // Act
+        ProductImportResultDTO result = importService.importProducts(body(csv), ProductImportService.Format.CSV);
+
+        // Assert
+        assertEquals(6, result.getRows());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(5L, 7L), result.getErrors().stream().map(ProductImportResultDTO.RowError::getLine).toList());
+        ProductDAO desk = productRepository.findAll().stream()
+                .filter(p -> p.getName().equals("Desk, oak"))
+                .findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("120.50").compareTo(desk.getPrice()));
+        assertEquals(5, desk.getStock());
+        assertEquals(7L, desk.getCreatedBy());
+        assertEquals(List.of(desk.getId()), productSearch.search("desk", null).stream()
+                .map(ProductSearchResultDTO::getId).toList());
+    }
+
+    @Test
+    void importCsv_TrimsFieldsBeforeMatchingNames() {
+        // Arrange
+        productRepository.save(ProductDAO.builder().name("Existing Lamp").price(BigDecimal.ONE).stock(1).build());
+        String csv = """
+                name , price, stock
+                Shirt, 20, 3
+                Shirt ,21,4
+                 Existing Lamp ,10,1
+                """;
+
+        // Act
+        ProductImportResultDTO result = importService.importProducts(body(csv), ProductImportService.Format.CSV);
+
+        // Assert
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        ProductDAO shirt = productRepository.findAll().stream()
+                .filter(p -> p.getName().equals("Shirt"))
+                .findFirst().orElseThrow();
+        assertEquals(3, shirt.getStock());
+    }
+
+    @Test
+    void importNdjson_SkipsInvalidLines() {
+        // Arrange
+        String ndjson = """
+                {"name": "Red Shirt", "price": 20, "stock": 10}
+                {"name": "Blue Shirt", "price": 
+                {"name": "Green Shirt", "price": -1, "stock": 10}
+                {"name": "Gray Shirt", "price": 25}
+                """;
+
+        // Act
+        ProductImportResultDTO result = importService.importProducts(body(ndjson), ProductImportService.Format.NDJSON);
+
+        // Assert
+        assertEquals(4, result.getRows());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Invalid JSON"));
+        assertEquals("price: Price must be positive", result.getErrors().get(1).getMessage());
+        assertEquals(2, productRepository.count());
+    }
+
+    @Test
+    void importCsv_RejectsHeaderWithoutRequiredColumns() {
+        // Act & Assert
+        assertThrows(ValidationException.class,
+                () -> importService.importProducts(body("name,cost\nChair,5\n"), ProductImportService.Format.CSV));
+    }
+
+    @Test
+    void parseCsvLine_HandlesQuotesAndEmptyFields() {
+        // Act & Assert
+        assertEquals(List.of("a", "b, c", "say \"hi\"", ""),
+                ProductImportService.parseCsvLine("a,\"b, c\",\"say \"\"hi\"\"\","));
+        assertEquals(List.of(""), ProductImportService.parseCsvLine(""));
+        assertEquals(List.of("a", " b ", ""), ProductImportService.parseCsvLine("  a , \" b \" ,  "));
+        assertThrows(IllegalArgumentException.class, () -> ProductImportService.parseCsvLine("\"open,1"));
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,117 @@
+package com.commerce.product.service;
+
+import com.commerce.product.dtos.ProductSearchResultDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.put(3L, "Red Shirt", BigDecimal.TEN);
+        index.put(1L, "Blue Shirt", BigDecimal.ONE);
+        index.put(2L, "Red Shoes", BigDecimal.valueOf(50));
+        index.put(4L, "Shirt-Dress, red/white", BigDecimal.valueOf(80));
+    }
+
+    @Test
+    void search_MatchesTokenPrefixInIdOrder() {
+        // Act
+        List<Long> result = ids(index.search("sh", 10));
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L), result);
+    }
+
+    @Test
+    void search_RequiresEveryToken() {
+        // Act
+        List<Long> result = ids(index.search("RED shi", 10));
+
+        // Assert
+        assertEquals(List.of(3L, 4L), result);
+    }
+
+    @Test
+    void search_ShortPrefixSpanningManyTokens() {
+        // Arrange
+        for (long id = 10; id < 40; id++) {
+            index.put(id, "Cable s" + id, BigDecimal.ONE);
+        }
+
+        // Act
+        List<Long> result = ids(index.search("cable s", 5));
+
+        // Assert
+        assertEquals(List.of(10L, 11L, 12L, 13L, 14L), result);
+        assertEquals(List.of(39L), ids(index.search("cab s39", 5)));
+    }
+
+    @Test
+    void search_ReturnsNameAndPrice() {
+        // Act
+        List<ProductSearchResultDTO> result = index.search("blue", 10);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("Blue Shirt", result.get(0).getName());
+        assertEquals(BigDecimal.ONE, result.get(0).getPrice());
+    }
+
+    @Test
+    void search_StopsAtLimit() {
+        // Act
+        List<Long> result = ids(index.search("shirt", 2));
+
+        // Assert
+        assertEquals(List.of(1L, 3L), result);
+    }
+
+    @Test
+    void search_NoMatch() {
+        // Act & Assert
+        assertTrue(index.search("green", 10).isEmpty());
+        assertTrue(index.search("red green", 10).isEmpty());
+        assertTrue(index.search(" -/ ", 10).isEmpty());
+    }
+
+    @Test
+    void put_RenameDropsOldTokens() {
+        // Act
+        index.put(2L, "Green Boots", BigDecimal.valueOf(50));
+
+        // Assert
+        assertEquals(List.of(3L, 4L), ids(index.search("red", 10)));
+        assertEquals(List.of(2L), ids(index.search("gre", 10)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void remove_DropsProduct() {
+        // Act
+        index.remove(3L);
+        index.remove(99L);
+
+        // Assert
+        assertEquals(List.of(2L, 4L), ids(index.search("red", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void tokenize_SplitsOnNonAlphanumerics() {
+        // Act & Assert
+        assertEquals(List.of("usb", "c", "cable", "2m"), List.copyOf(ProductSearchIndex.tokenize("USB-C Cable (2m), usb")));
+    }
+
+    private static List<Long> ids(List<ProductSearchResultDTO> results) {
+        return results.stream().map(ProductSearchResultDTO::getId).toList();
+    }
+}
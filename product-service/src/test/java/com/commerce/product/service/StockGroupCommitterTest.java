@@ -0,0 +1,339 @@
+package com.commerce.product.service;
+
+import com.commerce.common.dto.StockUpdateBatchDTO;
+import com.commerce.common.exception.ServiceUnavailableException;
+import com.commerce.product.config.ProductListingProperties;
+import com.commerce.product.config.ProductLookupProperties;
+import com.commerce.product.config.StockGroupCommitProperties;
+import com.commerce.product.dtos.ProductMapperImpl;
+import com.commerce.product.models.ProductDAO;
+import com.commerce.product.repository.ProductRepository;
+import com.commerce.product.service.impl.ProductServiceImpl;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.service.spi.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sends batch decreases through the group commit against an in-memory database in PostgreSQL mode,
+ * with a window long enough that concurrent callers end up in the same transaction.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:groupcommit;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = StockGroupCommitterTest.JpaConfig.class)
+class StockGroupCommitterTest {
+
+    private static final int BUYERS = 32;
+
+    @Configuration
+    @EntityScan(basePackageClasses = ProductDAO.class)
+    @EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+    @Import({ProductServiceImpl.class, StockShardService.class, ProductSearchService.class,
+            ProductListingProperties.class, ProductChangeFeed.class, ProductIdLookup.class,
+            ProductLookupProperties.class, ProductMapperImpl.class})
+    static class JpaConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        StockGroupCommitter stockGroupCommitter(ProductService productService, JdbcTemplate jdbcTemplate,
+                                                PlatformTransactionManager transactionManager,
+                                                MeterRegistry meterRegistry) {
+            StockGroupCommitProperties props = new StockGroupCommitProperties();
+            props.setEnabled(true);
+            props.setWindow(Duration.ofMillis(200));
+            return new StockGroupCommitter(productService, jdbcTemplate, transactionManager, props, meterRegistry);
+        }
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockGroupCommitter groupCommit;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    private Long product(String name, int stock) {
+        return productRepository.save(ProductDAO.builder()
+                .name(name)
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .build()).getId();
+    }
+
+    private int stock(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStock();
+    }
+
+    private static StockUpdateBatchDTO batch(Long productId, int quantity) {
+        return new StockUpdateBatchDTO(List.of(new StockUpdateBatchDTO.StockUpdateItem(productId, quantity)));
+    }
+
+    // starts all callers at once; the failures, in no particular order
+    private List<Throwable> decreaseConcurrently(List<StockUpdateBatchDTO> batches) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(batches.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (StockUpdateBatchDTO batch : batches) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    groupCommit.decrease(batch);
+                    return null;
+                }));
+            }
+            start.countDown();
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void decrease_ConcurrentBuyersShareCommitsWithoutOverselling() throws Exception {
+        // Arrange
+        Long productId = product("Grouped Product", 20);
+        List<StockUpdateBatchDTO> batches = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            batches.add(batch(productId, 1));
+        }
+
+        DistributionSummary groups = meterRegistry.get("product.stock.group_commit.size").summary();
+        long commitsBefore = groups.count();
+        double appliedBefore = groups.totalAmount();
+
+        // Act
+        List<Throwable> failures = decreaseConcurrently(batches);
+
+        // Assert
+        assertEquals(BUYERS - 20, failures.size());
+        failures.forEach(f -> assertInstanceOf(ServiceException.class, f));
+        assertEquals(0, stock(productId));
+        long commits = groups.count() - commitsBefore;
+        assertEquals(20, groups.totalAmount() - appliedBefore);
+        assertTrue(commits < 20, "expected fewer commits than applied batches, got " + commits);
+    }
+
+    @Test
+    void decrease_ShortBatchFailsWithoutTakingStockFromTheOthers() throws Exception {
+        // Arrange
+        Long scarce = product("Scarce", 5);
+        Long plenty = product("Plenty", 100);
+        StockUpdateBatchDTO both = new StockUpdateBatchDTO(List.of(
+                new StockUpdateBatchDTO.StockUpdateItem(plenty, 10),
+                new StockUpdateBatchDTO.StockUpdateItem(scarce, 4)));
+
+        // Act
+        List<Throwable> failures = decreaseConcurrently(List.of(batch(scarce, 3), both, batch(plenty, 1)));
+
+        // Assert: whichever of the first two came first got the scarce units, the other took nothing
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0).getMessage().contains("Insufficient stock for product ID " + scarce));
+        int scarceLeft = stock(scarce);
+        assertTrue(scarceLeft == 2 || scarceLeft == 1, "unexpected stock " + scarceLeft);
+        assertEquals(scarceLeft == 2 ? 99 : 89, stock(plenty));
+    }
+
+    @Test
+    void decrease_HotProductRunsOnItsOwn() {
+        // Arrange
+        Long hot = product("Hot Grouped", 10);
+        productService.enableHotMode(hot, 2);
+        double handedBackBefore = meterRegistry.get("product.stock.group_commit.handed_back").counter().count();
+
+        // Act
+        groupCommit.decrease(batch(hot, 3));
+
+        // Assert
+        assertEquals(7, stock(hot));
+        assertEquals(1, meterRegistry.get("product.stock.group_commit.handed_back").counter().count() - handedBackBefore);
+    }
+
+    /**
+     * A committer of its own whose flusher is stuck on the row lock of {@code locked}: the lock is held
+     * until {@code release} counts down, and a first caller's batch, whose call ends up in {@code stuck},
+     * is in the stuck group when this returns.
+     */
+    private StockGroupCommitter stuckCommitter(Long locked, CountDownLatch release, MeterRegistry meters,
+                                               ExecutorService threads, List<Future<?>> stuck) throws Exception {
+        CountDownLatch lockHeld = new CountDownLatch(1);
+        TransactionTemplate lockTx = new TransactionTemplate(transactionManager);
+        threads.submit(() -> lockTx.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT id FROM products WHERE id = ? FOR UPDATE", locked);
+            lockHeld.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(lockHeld.await(5, TimeUnit.SECONDS));
+
+        StockGroupCommitProperties props = new StockGroupCommitProperties();
+        props.setEnabled(true);
+        props.setWindow(Duration.ZERO);
+        props.setCommitTimeout(Duration.ofSeconds(1));
+        StockGroupCommitter committer = new StockGroupCommitter(productService, jdbcTemplate, transactionManager,
+                props, meters);
+        stuck.add(threads.submit(() -> {
+            committer.decrease(batch(locked, 1));
+            return null;
+        }));
+        // the wait is recorded once the group is taken off the queue, right before it locks its rows
+        Timer queueWait = meters.get("product.stock.group_commit.wait").timer();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queueWait.count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, queueWait.count());
+        return committer;
+    }
+
+    @Test
+    void decrease_RunsOnItsOwnWhenNotPickedUpInTime() throws Exception {
+        // Arrange
+        Long locked = product("Locked", 10);
+        Long free = product("Free", 10);
+        CountDownLatch release = new CountDownLatch(1);
+        MeterRegistry meters = new SimpleMeterRegistry();
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try (StockGroupCommitter committer = stuckCommitter(locked, release, meters, threads, new ArrayList<>())) {
+            // Act
+            committer.decrease(batch(free, 4));
+
+            // Assert
+            assertEquals(6, stock(free));
+            assertEquals(1, meters.get("product.stock.group_commit.handed_back").counter().count());
+        } finally {
+            release.countDown();
+            threads.shutdown();
+            assertTrue(threads.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void decrease_PickedUpBatchWaitsForItsSlowGroup() throws Exception {
+        // Arrange
+        Long locked = product("Locked", 10);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        List<Future<?>> stuck = new ArrayList<>();
+        try (StockGroupCommitter committer = stuckCommitter(locked, release, new SimpleMeterRegistry(), threads, stuck)) {
+            // Act: the caller's window + commit-timeout runs out while its group still waits for the lock
+            Thread.sleep(1_500);
+            release.countDown();
+            stuck.get(0).get(15, TimeUnit.SECONDS);
+
+            // Assert: applied exactly once, by its group or on its own after the group gave up
+            assertEquals(9, stock(locked));
+        } finally {
+            release.countDown();
+            threads.shutdown();
+            assertTrue(threads.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void close_FailsBatchesStillQueued() throws Exception {
+        // Arrange
+        Long locked = product("Locked", 10);
+        Long free = product("Free", 10);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            StockGroupCommitter committer = stuckCommitter(locked, release, new SimpleMeterRegistry(), threads, new ArrayList<>());
+            Thread queued = new Thread(() -> assertThrows(ServiceUnavailableException.class,
+                    () -> committer.decrease(batch(free, 4))));
+            queued.start();
+            while (queued.getState() != Thread.State.TIMED_WAITING) {
+                Thread.sleep(10);
+            }
+
+            // Act
+            committer.close();
+            queued.join(5_000);
+
+            // Assert
+            assertFalse(queued.isAlive());
+            assertEquals(10, stock(free));
+            assertThrows(ServiceUnavailableException.class, () -> committer.decrease(batch(free, 1)));
+        } finally {
+            release.countDown();
+            threads.shutdown();
+            assertTrue(threads.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void decrease_UnknownProductFails() {
+        // Act
+        ServiceException e = assertThrows(ServiceException.class, () -> groupCommit.decrease(batch(999L, 1)));
+
+        // Assert
+        assertTrue(e.getMessage().contains("Product not found for ID: 999"));
+    }
+}
@@ -0,0 +1,368 @@
+package com.commerce.product.service;
+
+import com.commerce.common.dto.StockReservationDTO;
+import com.commerce.common.dto.StockReservationRequestDTO;
+import com.commerce.common.dto.StockUpdateBatchDTO;
+import com.commerce.common.exception.ConflictException;
+import com.commerce.common.exception.ValidationException;
+import com.commerce.product.config.ProductListingProperties;
+import com.commerce.product.config.ProductLookupProperties;
+import com.commerce.product.config.ReservationProperties;
+import com.commerce.product.dtos.ProductMapperImpl;
+import com.commerce.product.models.ProductDAO;
+import com.commerce.product.models.StockReservationDAO;
+import com.commerce.product.repository.ProductRepository;
+import com.commerce.product.repository.StockReservationRepository;
+import com.commerce.product.service.impl.ProductServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.service.spi.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reserves, commits, releases and expires holds against an in-memory database in PostgreSQL mode,
+ * with a clock the test moves forward.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservations;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = StockReservationServiceTest.JpaConfig.class)
+class StockReservationServiceTest {
+
+    private static final long ORDER_ID = 7L;
+    private static final long CUSTOMER_ID = 3L;
+
+    @Configuration
+    @EntityScan(basePackageClasses = ProductDAO.class)
+    @EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+    @Import({ProductServiceImpl.class, StockShardService.class, ProductSearchService.class,
+            ProductListingProperties.class, ProductChangeFeed.class, ProductIdLookup.class,
+            ProductLookupProperties.class, ProductMapperImpl.class})
+    static class JpaConfig {
+        @Bean
+        MutableClock clock() {
+            return new MutableClock(Instant.now());
+        }
+
+        @Bean
+        StockReservationService stockReservationService(ProductService productService,
+                                                        ProductRepository productRepository,
+                                                        StockShardService stockShards,
+                                                        StockReservationRepository reservationRepository,
+                                                        PlatformTransactionManager transactionManager,
+                                                        MutableClock clock) {
+            return new StockReservationService(productService, productRepository, stockShards,
+                    reservationRepository, new ReservationProperties(), transactionManager,
+                    new SimpleMeterRegistry(), clock);
+        }
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private MutableClock clock;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository.deleteAll();
+        productRepository.deleteAll();
+        productId = productRepository.save(ProductDAO.builder()
+                .name("Reserved Product")
+                .price(BigDecimal.TEN)
+                .stock(10)
+                .build()).getId();
+    }
+
+    private StockReservationRequestDTO request(int quantity, Long ttlSeconds) {
+        return StockReservationRequestDTO.builder()
+                .orderId(ORDER_ID)
+                .items(List.of(new StockUpdateBatchDTO.StockUpdateItem(productId, quantity)))
+                .ttlSeconds(ttlSeconds)
+                .build();
+    }
+
+    private int stock() {
+        return productRepository.findById(productId).orElseThrow().getStock();
+    }
+
+    @Test
+    void reserve_TakesStockUntilCommitted() {
+        // Act
+        StockReservationDTO reservation = reservationService.reserve(request(4, null), CUSTOMER_ID);
+        int held = stock();
+        reservationService.commit(ORDER_ID, CUSTOMER_ID);
+
+        // Assert
+        assertEquals(clock.instant().plus(Duration.ofMinutes(15)).truncatedTo(ChronoUnit.MILLIS), reservation.getExpiresAt());
+        assertEquals(6, held);
+        assertEquals(6, stock());
+        assertEquals(0, reservationRepository.count());
+        assertThrows(ConflictException.class, () -> reservationService.commit(ORDER_ID, CUSTOMER_ID));
+    }
+
+    @Test
+    void release_PutsStockBack() {
+        // Arrange
+        reservationService.reserve(request(4, null), CUSTOMER_ID);
+
+        // Act
+        reservationService.release(ORDER_ID, CUSTOMER_ID);
+        reservationService.release(ORDER_ID, CUSTOMER_ID);
+
+        // Assert
+        assertEquals(10, stock());
+        assertEquals(0, reservationRepository.count());
+    }
+
+    @Test
+    void reserve_RetryReturnsExistingHold() {
+        // Arrange
+        StockReservationDTO first = reservationService.reserve(request(4, null), CUSTOMER_ID);
+
+        // Act
+        StockReservationDTO retried = reservationService.reserve(request(4, null), CUSTOMER_ID);
+
+        // Assert
+        assertEquals(first.getExpiresAt(), retried.getExpiresAt());
+        assertEquals(6, stock());
+    }
+
+    @Test
+    void reserve_ShortfallHoldsNothing() {
+        // Act & Assert
+        assertThrows(ServiceException.class, () -> reservationService.reserve(request(11, null), CUSTOMER_ID));
+        assertEquals(10, stock());
+        assertEquals(0, reservationRepository.count());
+    }
+
+    @Test
+    void reserve_RejectsTotalThatOverflows() {
+        // Arrange
+        StockReservationRequestDTO overflowing = StockReservationRequestDTO.builder()
+                .orderId(ORDER_ID)
+                .items(List.of(new StockUpdateBatchDTO.StockUpdateItem(productId, 2_000_000_000),
+                        new StockUpdateBatchDTO.StockUpdateItem(productId, 2_000_000_000)))
+                .build();
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> reservationService.reserve(overflowing, CUSTOMER_ID));
+        assertEquals(10, stock());
+        assertEquals(0, reservationRepository.count());
+    }
+
+    @Test
+    void reserve_RejectsTtlAboveMaximum() {
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> reservationService.reserve(request(1, Duration.ofHours(2).toSeconds()), CUSTOMER_ID));
+        assertThrows(ValidationException.class, () -> reservationService.reserve(request(1, 0L), CUSTOMER_ID));
+    }
+
+    @Test
+    void expireDue_ReleasesHoldOnceTtlHasPassed() {
+        // Arrange
+        reservationService.reserve(request(4, 30L), CUSTOMER_ID);
+
+        // Act
+        clock.advance(Duration.ofSeconds(20));
+        reservationService.expireDue();
+        int beforeExpiry = stock();
+        clock.advance(Duration.ofSeconds(11));
+        reservationService.expireDue();
+
+        // Assert
+        assertEquals(6, beforeExpiry);
+        assertEquals(10, stock());
+        assertThrows(ConflictException.class, () -> reservationService.commit(ORDER_ID, CUSTOMER_ID));
+    }
+
+    @Test
+    void expireDue_ReturnsStockOfHotProductToShards() {
+        // Arrange
+        productService.enableHotMode(productId, 4);
+        reservationService.reserve(request(4, 30L), CUSTOMER_ID);
+
+        // Act
+        clock.advance(Duration.ofSeconds(31));
+        reservationService.expireDue();
+
+        // Assert
+        assertEquals(10, stock());
+        assertEquals(4, productRepository.findById(productId).orElseThrow().getStockShards());
+    }
+
+    @Test
+    void reserve_OtherUserCannotTouchTheHold() {
+        // Arrange
+        reservationService.reserve(request(4, null), CUSTOMER_ID);
+        long otherCustomer = CUSTOMER_ID + 1;
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> reservationService.reserve(request(4, null), otherCustomer));
+        assertThrows(ValidationException.class, () -> reservationService.commit(ORDER_ID, otherCustomer));
+        assertThrows(ValidationException.class, () -> reservationService.release(ORDER_ID, otherCustomer));
+        assertEquals(6, stock());
+        assertEquals(1, reservationRepository.count());
+    }
+
+    @Test
+    void sweepExpired_ReleasesHoldUnknownToThisInstance() {
+        // Arrange: a hold another instance made and never expired
+        productService.decreaseStock(productId, 4);
+        reservationRepository.save(StockReservationDAO.builder()
+                .orderId(ORDER_ID)
+                .productId(productId)
+                .customerId(CUSTOMER_ID)
+                .quantity(4)
+                .expiresAt(clock.instant().plusSeconds(30))
+                .build());
+
+        // Act
+        clock.advance(Duration.ofSeconds(31));
+        reservationService.expireDue();
+        int afterWheel = stock();
+        reservationService.sweepExpired();
+
+        // Assert
+        assertEquals(6, afterWheel);
+        assertEquals(10, stock());
+        assertEquals(0, reservationRepository.count());
+    }
+
+    @Test
+    void schedulePending_SchedulesLiveHoldsAndSweepsExpiredOnes() {
+        // Arrange: holds a previous run left behind, one already expired
+        productService.decreaseStock(productId, 5);
+        reservationRepository.save(StockReservationDAO.builder()
+                .orderId(ORDER_ID)
+                .productId(productId)
+                .customerId(CUSTOMER_ID)
+                .quantity(2)
+                .expiresAt(clock.instant().minusSeconds(5))
+                .build());
+        reservationRepository.save(StockReservationDAO.builder()
+                .orderId(ORDER_ID + 1)
+                .productId(productId)
+                .customerId(CUSTOMER_ID)
+                .quantity(3)
+                .expiresAt(clock.instant().plusSeconds(30))
+                .build());
+
+        // Act
+        reservationService.schedulePending();
+        int atStartup = stock();
+        clock.advance(Duration.ofSeconds(31));
+        reservationService.expireDue();
+
+        // Assert
+        assertEquals(7, atStartup);
+        assertEquals(10, stock());
+        assertEquals(0, reservationRepository.count());
+    }
+
+    @Test
+    void sweepExpired_SkipsHoldLockedElsewhere() throws Exception {
+        // Arrange
+        reservationService.reserve(request(4, 30L), CUSTOMER_ID);
+        clock.advance(Duration.ofSeconds(31));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch swept = new CountDownLatch(1);
+        TransactionTemplate lockTx = new TransactionTemplate(transactionManager);
+        Thread other = new Thread(() -> lockTx.executeWithoutResult(status -> {
+            reservationRepository.findByOrderIdOrderByProductIdAsc(ORDER_ID);
+            locked.countDown();
+            try {
+                swept.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            status.setRollbackOnly();
+        }));
+        other.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        // Act
+        reservationService.sweepExpired();
+        int whileLocked = stock();
+        swept.countDown();
+        other.join(5_000);
+        reservationService.sweepExpired();
+
+        // Assert
+        assertEquals(6, whileLocked);
+        assertEquals(10, stock());
+        assertEquals(0, reservationRepository.count());
+    }
+
+    static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
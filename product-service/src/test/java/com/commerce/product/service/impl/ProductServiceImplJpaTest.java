@@ -0,0 +1,450 @@
+package com.commerce.product.service.impl;
+
+import com.commerce.common.dto.CursorPageDTO;
+import com.commerce.common.dto.IdsDTO;
+import com.commerce.common.dto.ProductChangeDTO;
+import com.commerce.common.dto.ProductChangeFeedDTO;
+import com.commerce.common.dto.StockUpdateBatchDTO;
+import com.commerce.common.exception.ResourceNotFoundException;
+import com.commerce.product.config.ProductListingProperties;
+import com.commerce.product.config.ProductLookupProperties;
+import com.commerce.product.dtos.ProductCreateDTO;
+import com.commerce.product.dtos.ProductMapperImpl;
+import com.commerce.product.dtos.ProductSearchResultDTO;
+import com.commerce.product.dtos.ProductUpdateDTO;
+import com.commerce.product.models.ProductDAO;
+import com.commerce.product.repository.ProductRepository;
+import com.commerce.product.repository.ProductSummary;
+import com.commerce.product.service.ProductChangeFeed;
+import com.commerce.product.service.ProductETags;
+import com.commerce.product.service.ProductIdLookup;
+import com.commerce.product.service.ProductSearchService;
+import com.commerce.product.service.ProductService;
+import com.commerce.product.service.StockShardService;
+import org.hibernate.service.spi.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the stock updates of ProductServiceImpl against an in-memory database in PostgreSQL mode,
+ * with many buyers committing concurrently, to check that stock is never oversold.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:products;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = ProductServiceImplJpaTest.JpaConfig.class)
+class ProductServiceImplJpaTest {
+
+    private static final int BUYERS = 64;
+
+    @Configuration
+    @EntityScan(basePackageClasses = ProductDAO.class)
+    @EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+    @Import({ProductServiceImpl.class, StockShardService.class, ProductSearchService.class,
+            ProductListingProperties.class, ProductChangeFeed.class, ProductIdLookup.class,
+            ProductLookupProperties.class, ProductMapperImpl.class})
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchService productSearch;
+
+    @Autowired
+    private ProductChangeFeed changeFeed;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    private ProductDAO product(String name, int stock) {
+        return productRepository.save(ProductDAO.builder()
+                .name(name)
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .build());
+    }
+
+    // starts all buyers at once and returns how many of them got their stock
+    private int buyConcurrently(Callable<?> purchase) throws Exception {
+        ExecutorService buyers = Executors.newFixedThreadPool(BUYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < BUYERS; i++) {
+                results.add(buyers.submit(() -> {
+                    start.await();
+                    return purchase.call();
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ServiceException.class, e.getCause());
+                }
+            }
+            return succeeded;
+        } finally {
+            buyers.shutdownNow();
+        }
+    }
+
+    @Test
+    void decreaseStock_NoOversellUnderParallelBuyers() throws Exception {
+        // Arrange
+        Long id = product("Hot Product", 50).getId();
+
+        // Act
+        int succeeded = buyConcurrently(() -> productService.decreaseStock(id, 1));
+
+        // Assert
+        assertEquals(50, succeeded);
+        assertEquals(0, productRepository.findById(id).orElseThrow().getStock());
+    }
+
+    @Test
+    void batchDecreaseStock_NoOversellUnderParallelBuyers() throws Exception {
+        // Arrange
+        Long first = product("First Product", 40).getId();
+        Long second = product("Second Product", 30).getId();
+        // items in both orders, so batches that locked rows in request order would deadlock
+        StockUpdateBatchDTO forward = new StockUpdateBatchDTO(List.of(
+                new StockUpdateBatchDTO.StockUpdateItem(first, 1),
+                new StockUpdateBatchDTO.StockUpdateItem(second, 1)));
+        StockUpdateBatchDTO backward = new StockUpdateBatchDTO(List.of(
+                new StockUpdateBatchDTO.StockUpdateItem(second, 1),
+                new StockUpdateBatchDTO.StockUpdateItem(first, 1)));
+
+        // Act
+        int succeeded = buyConcurrently(() -> productService.batchDecreaseStock(
+                Thread.currentThread().threadId() % 2 == 0 ? forward : backward));
+
+        // Assert
+        assertEquals(30, succeeded);
+        assertEquals(10, productRepository.findById(first).orElseThrow().getStock());
+        assertEquals(0, productRepository.findById(second).orElseThrow().getStock());
+    }
+
+    @Test
+    void decreaseStock_HotProductNoOversellUnderParallelBuyers() throws Exception {
+        // Arrange
+        Long id = product("Flash Sale Product", 50).getId();
+        productService.enableHotMode(id, 8);
+
+        // Act
+        int succeeded = buyConcurrently(() -> productService.decreaseStock(id, 1));
+
+        // Assert
+        assertEquals(50, succeeded);
+        assertEquals(0, productRepository.findById(id).orElseThrow().getStock());
+    }
+
+    @Test
+    void batchDecreaseStock_HotProductTakesAcrossShards() {
+        // Arrange
+        Long id = product("Flash Sale Product", 20).getId();
+        productService.enableHotMode(id, 4);
+
+        // Act: no single shard holds 12
+        productService.batchDecreaseStock(new StockUpdateBatchDTO(List.of(
+                new StockUpdateBatchDTO.StockUpdateItem(id, 12))));
+
+        // Assert
+        assertEquals(8, productRepository.findById(id).orElseThrow().getStock());
+        assertThrows(ServiceException.class, () -> productService.batchDecreaseStock(new StockUpdateBatchDTO(List.of(
+                new StockUpdateBatchDTO.StockUpdateItem(id, 9)))));
+    }
+
+    @Test
+    void hotMode_KeepsStockAcrossEnableIncreaseAndDisable() {
+        // Arrange
+        Long id = product("Flash Sale Product", 10).getId();
+
+        // Act
+        ProductDAO hot = productService.enableHotMode(id, 3);
+        productService.increaseStock(id, 5);
+        ProductDAO merged = productService.disableHotMode(id);
+
+        // Assert
+        assertEquals(3, hot.getStockShards());
+        assertEquals(10, hot.getStock());
+        assertEquals(0, merged.getStockShards());
+        assertEquals(15, merged.getStock());
+    }
+
+    @Test
+    void batchDecreaseStock_ShortfallRollsBackWholeBatch() {
+        // Arrange
+        Long plenty = product("Plenty", 10).getId();
+        Long scarce = product("Scarce", 1).getId();
+        StockUpdateBatchDTO batch = new StockUpdateBatchDTO(List.of(
+                new StockUpdateBatchDTO.StockUpdateItem(plenty, 5),
+                new StockUpdateBatchDTO.StockUpdateItem(scarce, 2)));
+
+        // Act
+        ServiceException e = assertThrows(ServiceException.class, () -> productService.batchDecreaseStock(batch));
+
+        // Assert
+        assertTrue(e.getMessage().contains("Insufficient stock for product ID " + scarce));
+        assertEquals(10, productRepository.findById(plenty).orElseThrow().getStock());
+        assertEquals(1, productRepository.findById(scarce).orElseThrow().getStock());
+    }
+
+    @Test
+    void batchIncreaseStock_RestocksPlainAndHotProductsInOneCall() {
+        // Arrange
+        Long soldOut = product("Sold Out", 0).getId();
+        Long hot = product("Hot Restock", 4).getId();
+        productService.enableHotMode(hot, 2);
+        StockUpdateBatchDTO batch = new StockUpdateBatchDTO(List.of(
+                new StockUpdateBatchDTO.StockUpdateItem(soldOut, 3),
+                new StockUpdateBatchDTO.StockUpdateItem(hot, 5),
+                new StockUpdateBatchDTO.StockUpdateItem(soldOut, 2)));
+
+        // Act
+        productService.batchIncreaseStock(batch);
+        productService.increaseStock(soldOut, 1);
+
+        // Assert
+        assertEquals(6, productRepository.findById(soldOut).orElseThrow().getStock());
+        assertEquals(9, productRepository.findById(hot).orElseThrow().getStock());
+        assertEquals(2, productRepository.findStockShardsById(hot).orElseThrow());
+    }
+
+    @Test
+    void batchIncreaseStock_UnknownProductRollsBackWholeBatch() {
+        // Arrange
+        Long known = product("Known", 1).getId();
+        StockUpdateBatchDTO batch = new StockUpdateBatchDTO(List.of(
+                new StockUpdateBatchDTO.StockUpdateItem(known, 5),
+                new StockUpdateBatchDTO.StockUpdateItem(known + 1000, 5)));
+
+        // Act
+        assertThrows(ServiceException.class, () -> productService.batchIncreaseStock(batch));
+
+        // Assert
+        assertEquals(1, productRepository.findById(known).orElseThrow().getStock());
+    }
+
+    @Test
+    void increaseStock_DeletedProductNotFound() {
+        // Arrange
+        Long deleted = product("Deleted Restock", 2).getId();
+        productService.delete(deleted);
+        StockUpdateBatchDTO batch = new StockUpdateBatchDTO(List.of(new StockUpdateBatchDTO.StockUpdateItem(deleted, 5)));
+
+        // Act & Assert
+        assertThrows(ServiceException.class, () -> productService.increaseStock(deleted, 5));
+        assertThrows(ServiceException.class, () -> productService.batchIncreaseStock(batch));
+        assertEquals(2, productRepository.findById(deleted).orElseThrow().getStock());
+    }
+
+    @Test
+    void search_FollowsCreateAndUpdate() {
+        // Arrange: the index was loaded at startup, so both products come from the service
+        Long desk = productService.create(new ProductCreateDTO("Walnut Desk", BigDecimal.TEN, 1)).getId();
+        Long shelf = productService.create(new ProductCreateDTO("Walnut Shelf", BigDecimal.ONE, 3)).getId();
+
+        // Act
+        productService.update(new ProductUpdateDTO(desk, "Oak Desk", BigDecimal.TEN, 1));
+
+        // Assert
+        assertEquals(List.of(shelf), productSearch.search("walnut", null).stream()
+                .map(ProductSearchResultDTO::getId).toList());
+        assertEquals(List.of(desk), productSearch.search("oak de", null).stream()
+                .map(ProductSearchResultDTO::getId).toList());
+    }
+
+    @Test
+    void search_IgnoresRolledBackChanges() {
+        // Arrange
+        Long desk = productService.create(new ProductCreateDTO("Maple Desk", BigDecimal.TEN, 1)).getId();
+        TransactionTemplate rolledBack = new TransactionTemplate(transactionManager);
+
+        // Act
+        rolledBack.executeWithoutResult(status -> {
+            productService.create(new ProductCreateDTO("Maple Shelf", BigDecimal.ONE, 3));
+            productService.update(new ProductUpdateDTO(desk, "Cherry Desk", BigDecimal.TEN, 1));
+            status.setRollbackOnly();
+        });
+        rolledBack.executeWithoutResult(status -> {
+            productService.delete(desk);
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(List.of(desk), productSearch.search("maple", null).stream()
+                .map(ProductSearchResultDTO::getId).toList());
+        assertTrue(productSearch.search("cherry", null).isEmpty());
+    }
+
+    @Test
+    void list_WalksEveryProductOnceInEachSortOrder() {
+        // Arrange
+        product("Lamp", 5);
+        product("Chair", 2);
+        Long hot = product("Table", 40).getId();
+        product("Bench", 7);
+        product("Shelf", 1);
+        productService.enableHotMode(hot, 4);
+
+        // Act
+        List<ProductSummary> byId = listAll("id");
+        List<ProductSummary> byName = listAll("name");
+
+        // Assert
+        assertEquals(byId.stream().map(ProductSummary::getId).sorted().toList(),
+                byId.stream().map(ProductSummary::getId).toList());
+        assertEquals(List.of("Bench", "Chair", "Lamp", "Shelf", "Table"),
+                byName.stream().map(ProductSummary::getName).toList());
+        assertEquals(40, byName.get(4).getStock());
+        assertEquals(5, listAll("price").size());
+    }
+
+    // pages of two, so every sort order needs a cursor
+    private List<ProductSummary> listAll(String sort) {
+        List<ProductSummary> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<ProductSummary> page = productService.list(cursor, 2, sort);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return all;
+    }
+
+    @Test
+    void etag_ChangesWithStockUpdatesAndHotMode() {
+        // Arrange
+        Long id = product("Tagged Product", 10).getId();
+        String initial = productService.etag(id).orElseThrow();
+
+        // Act
+        productService.decreaseStock(id, 1);
+        String afterSale = productService.etag(id).orElseThrow();
+        productService.update(new ProductUpdateDTO(id, "Tagged Product", BigDecimal.ONE, 9));
+        String afterUpdate = productService.etag(id).orElseThrow();
+        productService.enableHotMode(id, 2);
+        String afterHotMode = productService.etag(id).orElseThrow();
+
+        // Assert
+        assertEquals(4, List.of(initial, afterSale, afterUpdate, afterHotMode).stream().distinct().count());
+        assertEquals(afterHotMode, ProductETags.of(productService.find(id)));
+        assertEquals(productService.findProducts(new IdsDTO(List.of(id, 999L))).getHeaders().getETag(),
+                productService.etag(List.of(id, 999L)));
+        assertTrue(productService.etag(999L).isEmpty());
+    }
+
+    @Test
+    void idLookup_QueriesDistinctIdsInChunks() {
+        // Arrange
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(product("Chunked Product " + i, 1).getId());
+        }
+        List<Long> requested = new ArrayList<>(ids);
+        requested.addAll(ids.subList(0, 3));
+        requested.add(999_999L);
+        ProductLookupProperties props = new ProductLookupProperties();
+        props.setChunkSize(2);
+        props.setParallelism(2);
+        List<Integer> chunkSizes = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        List<ProductDAO> found;
+        try (ProductIdLookup lookup = new ProductIdLookup(props)) {
+            found = lookup.find(requested, chunk -> {
+                chunkSizes.add(chunk.size());
+                return productRepository.findProductByIdIn(chunk);
+            });
+        }
+
+        // Assert
+        assertEquals(ids, found.stream().map(ProductDAO::getId).sorted().toList());
+        assertEquals(List.of(2, 2, 2, 2), chunkSizes.stream().sorted().toList());
+    }
+
+    @Test
+    void changes_ReportEachProductAtItsLatestChangeInCommitOrder() {
+        // Arrange
+        String start = changeFeed.since(null, 10).getCursor();
+        ProductDAO lamp = productService.create(new ProductCreateDTO("Feed Lamp", BigDecimal.ONE, 5));
+        ProductDAO desk = productService.create(new ProductCreateDTO("Feed Desk", BigDecimal.TEN, 5));
+        productService.update(new ProductUpdateDTO(lamp.getId(), "Feed Lamp XL", BigDecimal.TWO, 5));
+        productService.enableHotMode(desk.getId(), 2);
+
+        // Act
+        productService.delete(desk.getId());
+        List<ProductChangeDTO> changes = new ArrayList<>();
+        String cursor = start;
+        ProductChangeFeedDTO page;
+        do {
+            page = changeFeed.since(cursor, 1);
+            changes.addAll(page.getChanges());
+            cursor = page.getCursor();
+        } while (page.isHasMore());
+
+        // Assert
+        assertEquals(List.of(lamp.getId(), desk.getId()), changes.stream().map(ProductChangeDTO::getId).toList());
+        assertEquals("Feed Lamp XL", changes.get(0).getName());
+        assertFalse(changes.get(0).isDeleted());
+        assertTrue(changes.get(1).isDeleted());
+        assertTrue(changes.get(0).getSequence() < changes.get(1).getSequence());
+        assertTrue(changeFeed.since(cursor, 10).getChanges().isEmpty());
+        assertEquals(cursor, changeFeed.since(cursor, 10).getCursor());
+
+        // a deleted product is gone from every read and can no longer be sold
+        assertThrows(ResourceNotFoundException.class, () -> productService.find(desk.getId()));
+        assertTrue(productService.etag(desk.getId()).isEmpty());
+        assertTrue(productSearch.search("desk", 10).isEmpty());
+        assertEquals(List.of(lamp.getId()),
+                productService.list(null, 10, "id").getItems().stream().map(ProductSummary::getId).toList());
+        assertEquals(0, productRepository.findStockShardsById(desk.getId()).orElseThrow());
+        assertThrows(ServiceException.class, () -> productService.decreaseStock(desk.getId(), 1));
+    }
+}
@@ -1,27 +1,43 @@
 package com.commerce.product.service.impl;
 
+import com.commerce.common.dto.CursorPageDTO;
 import com.commerce.common.dto.IdsDTO;
 import com.commerce.common.dto.ProductResponseDTO;
 import com.commerce.common.dto.StockUpdateBatchDTO;
 import com.commerce.common.exception.ConflictException;
 import com.commerce.common.exception.ResourceNotFoundException;
+import com.commerce.common.exception.ValidationException;
+import com.commerce.common.util.PageCursor;
+import com.commerce.product.config.ProductListingProperties;
+import com.commerce.product.config.ProductLookupProperties;
 import com.commerce.product.dtos.ProductCreateDTO;
+import com.commerce.product.dtos.ProductMapper;
+import com.commerce.product.dtos.ProductMapperImpl;
 import com.commerce.product.dtos.ProductUpdateDTO;
 import com.commerce.product.models.ProductDAO;
 import com.commerce.product.repository.ProductRepository;
+import com.commerce.product.repository.ProductSummary;
+import com.commerce.product.service.ProductChangeFeed;
+import com.commerce.product.service.ProductIdLookup;
+import com.commerce.product.service.ProductSearchService;
+import com.commerce.product.service.StockShardService;
 import org.hibernate.service.spi.ServiceException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,8 +49,23 @@ class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Spy
+    private ProductMapper productMapper = new ProductMapperImpl();
+
+    @Mock
+    private StockShardService stockShards;
+
     @Mock
-    private ModelMapper modelMapper;
+    private ProductSearchService productSearch;
+
+    @Mock
+    private ProductChangeFeed changeFeed;
+
+    @Spy
+    private ProductListingProperties listingProperties = new ProductListingProperties();
+
+    @Spy
+    private ProductIdLookup idLookup = new ProductIdLookup(new ProductLookupProperties());
 
     @InjectMocks
     private ProductServiceImpl productService;
@@ -62,8 +93,7 @@ class ProductServiceImplTest {
     @Test
     void create_Successful() {
         // Arrange
-        when(productRepository.existsByName("Test Product")).thenReturn(false);
-        when(modelMapper.map(productCreateDTO, ProductDAO.class)).thenReturn(testProduct);
+        when(productRepository.existsByNameAndDeletedFalse("Test Product")).thenReturn(false);
         when(productRepository.save(any(ProductDAO.class))).thenReturn(testProduct);
 
         // Act
@@ -72,14 +102,15 @@ class ProductServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(productRepository).existsByName("Test Product");
+        verify(productRepository).existsByNameAndDeletedFalse("Test Product");
         verify(productRepository).save(any(ProductDAO.class));
+        verify(productSearch).index(testProduct);
     }
 
     @Test
     void create_ProductNameExists() {
         // Arrange
-        when(productRepository.existsByName("Test Product")).thenReturn(true);
+        when(productRepository.existsByNameAndDeletedFalse("Test Product")).thenReturn(true);
 
         // Act & Assert
         assertThrows(ConflictException.class, () -> productService.create(productCreateDTO));
@@ -113,10 +144,8 @@ class ProductServiceImplTest {
         List<Long> ids = List.of(1L, 2L, 3L);
         IdsDTO idsDTO = new IdsDTO(ids);
         List<ProductDAO> products = List.of(testProduct);
-        ProductResponseDTO responseDTO = new ProductResponseDTO(1L, "Test Product", BigDecimal.valueOf(99.99), 100);
 
         when(productRepository.findProductByIdIn(ids)).thenReturn(products);
-        when(modelMapper.map(testProduct, ProductResponseDTO.class)).thenReturn(responseDTO);
 
         // Act
         ResponseEntity<List<ProductResponseDTO>> response = productService.findProducts(idsDTO);
@@ -125,13 +154,14 @@ class ProductServiceImplTest {
         assertNotNull(response);
         assertEquals(1, response.getBody().size());
         assertEquals(1L, response.getBody().get(0).getId());
+        assertEquals("Test Product", response.getBody().get(0).getName());
+        assertEquals(100, response.getBody().get(0).getStock());
     }
 
     @Test
     void findProducts_EmptyList() {
         // Arrange
         IdsDTO idsDTO = new IdsDTO(List.of());
-        when(productRepository.findProductByIdIn(List.of())).thenReturn(List.of());
 
         // Act
         ResponseEntity<List<ProductResponseDTO>> response = productService.findProducts(idsDTO);
@@ -139,6 +169,48 @@ class ProductServiceImplTest {
         // Assert
         assertNotNull(response);
         assertTrue(response.getBody().isEmpty());
+        verify(productRepository, never()).findProductByIdIn(anyList());
+    }
+
+    @Test
+    void findProducts_QueriesEachIdOnceInOrder() {
+        // Arrange
+        IdsDTO idsDTO = new IdsDTO(List.of(3L, 1L, 3L, 2L, 1L));
+        when(productRepository.findProductByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(testProduct));
+
+        // Act
+        ResponseEntity<List<ProductResponseDTO>> response = productService.findProducts(idsDTO);
+
+        // Assert
+        assertEquals(1, response.getBody().size());
+        verify(productRepository).findProductByIdIn(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void findProducts_SkipsNullIds() {
+        // Arrange
+        IdsDTO idsDTO = new IdsDTO(Arrays.asList(2L, null, 1L, null));
+        when(productRepository.findProductByIdIn(List.of(1L, 2L))).thenReturn(List.of(testProduct));
+
+        // Act
+        ResponseEntity<List<ProductResponseDTO>> response = productService.findProducts(idsDTO);
+
+        // Assert
+        assertEquals(1, response.getBody().size());
+        verify(productRepository).findProductByIdIn(List.of(1L, 2L));
+    }
+
+    @Test
+    void findProducts_OnlyNullIds() {
+        // Arrange
+        IdsDTO idsDTO = new IdsDTO(Arrays.asList(null, null));
+
+        // Act
+        ResponseEntity<List<ProductResponseDTO>> response = productService.findProducts(idsDTO);
+
+        // Assert
+        assertTrue(response.getBody().isEmpty());
+        verify(productRepository, never()).findProductByIdIn(anyList());
     }
 
     @Test
@@ -154,11 +226,62 @@ class ProductServiceImplTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    void list_FirstPageHasCursorWhenMoreRowsExist() {
+        // Arrange
+        ProductSummary first = summary(1L, "Bench");
+        ProductSummary second = summary(2L, "Chair");
+        when(productRepository.findSummariesByName(Limit.of(2))).thenReturn(List.of(first, second));
+
+        // Act
+        CursorPageDTO<ProductSummary> page = productService.list(null, 1, "name");
+
+        // Assert
+        assertEquals(List.of(first), page.getItems());
+        assertEquals(PageCursor.encode(1L, "Bench"), page.getNextCursor());
+    }
+
+    @Test
+    void list_ContinuesAfterCursor() {
+        // Arrange
+        ProductSummary last = summary(8L, "Desk");
+        when(productRepository.findSummariesAfterName("Chair\nwith newline", 7L, Limit.of(51)))
+                .thenReturn(List.of(last));
+
+        // Act
+        CursorPageDTO<ProductSummary> page = productService.list(PageCursor.encode(7L, "Chair\nwith newline"), null,
+                "NAME");
+
+        // Assert
+        assertEquals(List.of(last), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void list_RejectsInvalidCursorSizeAndSort() {
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> productService.list("not a cursor!", 10, "id"));
+        assertThrows(ValidationException.class, () -> productService.list(PageCursor.encode(1L), 10, "price"));
+        assertThrows(ValidationException.class, () -> productService.list(PageCursor.encode(1L, "abc"), 10, "price"));
+        assertThrows(ValidationException.class, () -> productService.list(null, 0, "id"));
+        assertThrows(ValidationException.class, () -> productService.list(null, 501, "id"));
+        assertThrows(ValidationException.class, () -> productService.list(null, 10, "stock"));
+        verifyNoInteractions(productRepository);
+    }
+
+    private static ProductSummary summary(Long id, String name) {
+        ProductSummary summary = mock(ProductSummary.class);
+        lenient().when(summary.getId()).thenReturn(id);
+        lenient().when(summary.getName()).thenReturn(name);
+        return summary;
+    }
+
     @Test
     void decreaseStock_Successful() {
         // Arrange
+        when(productRepository.decrementStock(1L, 10)).thenReturn(1);
+        testProduct.setStock(90);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(ProductDAO.class))).thenReturn(testProduct);
 
         // Act
         ProductDAO result = productService.decreaseStock(1L, 10);
@@ -166,44 +289,164 @@ class ProductServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(90, result.getStock());
+        verify(productRepository, never()).save(any(ProductDAO.class));
     }
 
     @Test
     void decreaseStock_InsufficientStock() {
         // Arrange
+        when(productRepository.decrementStock(1L, 101)).thenReturn(0);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
 
         // Act & Assert
         assertThrows(ServiceException.class, () -> productService.decreaseStock(1L, 101));
     }
 
+    @Test
+    void decreaseStock_ProductNotFound() {
+        // Arrange
+        when(productRepository.decrementStock(99L, 1)).thenReturn(0);
+        when(productRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        ServiceException e = assertThrows(ServiceException.class, () -> productService.decreaseStock(99L, 1));
+        assertEquals("Product not found", e.getMessage());
+    }
+
+    @Test
+    void decreaseStock_RejectsNonPositiveQuantity() {
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> productService.decreaseStock(1L, -5));
+        verify(productRepository, never()).decrementStock(any(), anyInt());
+    }
+
+    @Test
+    void decreaseStock_HotProductTakesFromShards() {
+        // Arrange
+        when(productRepository.decrementStock(1L, 10)).thenReturn(0);
+        when(productRepository.findStockShardsById(1L)).thenReturn(Optional.of(8));
+        when(stockShards.decrement(1L, 8, 10)).thenReturn(true);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        // Act
+        ProductDAO result = productService.decreaseStock(1L, 10);
+
+        // Assert
+        assertNotNull(result);
+        verify(stockShards).decrement(1L, 8, 10);
+    }
+
     @Test
     void increaseStock_Successful() {
         // Arrange
+        when(productRepository.incrementStock(1L, 150)).thenReturn(1);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(ProductDAO.class))).thenReturn(testProduct);
 
         // Act
-        ProductDAO result = productService.increaseStock(1L, 50);
+        ProductDAO result = productService.increaseStock(1L, 150);
 
         // Assert
         assertNotNull(result);
-        assertEquals(150, result.getStock());
+        verify(productRepository, never()).findStockShardsById(any());
+        verify(productRepository, never()).save(any(ProductDAO.class));
+    }
+
+    @Test
+    void increaseStock_ProductNotFound() {
+        // Arrange
+        when(productRepository.incrementStock(99L, 5)).thenReturn(0);
+        when(productRepository.findStockShardsById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ServiceException.class, () -> productService.increaseStock(99L, 5));
+    }
+
+    @Test
+    void increaseStock_RejectsNonPositiveQuantity() {
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> productService.increaseStock(1L, -5));
+        verify(productRepository, never()).incrementStock(any(), anyInt());
     }
 
     @Test
     void update_Successful() {
         // Arrange
+        when(changeFeed.next()).thenReturn(7L);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(ProductDAO.class))).thenReturn(testProduct);
+        when(productRepository.saveAndFlush(any(ProductDAO.class))).thenReturn(testProduct);
 
         // Act
         ProductDAO result = productService.update(productUpdateDTO);
 
         // Assert
         assertNotNull(result);
-        verify(modelMapper).map(productUpdateDTO, testProduct);
-        verify(productRepository).save(testProduct);
+        assertEquals(7L, result.getChangeSeq());
+        assertEquals("Updated Product", result.getName());
+        assertEquals(200, result.getStock());
+        verify(productMapper).update(productUpdateDTO, testProduct);
+        verify(productRepository).saveAndFlush(testProduct);
+    }
+
+    @Test
+    void increaseStock_HotProductAddsToShard() {
+        // Arrange
+        when(productRepository.incrementStock(1L, 50)).thenReturn(0);
+        when(productRepository.findStockShardsById(1L)).thenReturn(Optional.of(8));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        // Act
+        productService.increaseStock(1L, 50);
+
+        // Assert
+        verify(stockShards).increment(1L, 8, 50);
+        verify(productRepository, never()).save(any(ProductDAO.class));
+    }
+
+    @Test
+    void update_HotProductRejectsStockChange() {
+        // Arrange
+        testProduct.setStockShards(8);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> productService.update(productUpdateDTO));
+        verify(productRepository, never()).saveAndFlush(any(ProductDAO.class));
+    }
+
+    @Test
+    void delete_FlagsProductAndDropsItFromSearch() {
+        // Arrange
+        when(changeFeed.next()).thenReturn(7L);
+        when(productRepository.findStockShardsById(1L)).thenReturn(Optional.of(0));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        // Act
+        productService.delete(1L);
+
+        // Assert
+        assertTrue(testProduct.isDeleted());
+        assertEquals(7L, testProduct.getChangeSeq());
+        verify(productRepository).saveAndFlush(testProduct);
+        verify(productSearch).remove(1L);
+        verify(stockShards, never()).merge(any());
+    }
+
+    @Test
+    void find_DeletedProductNotFound() {
+        // Arrange
+        testProduct.setDeleted(true);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> productService.find(1L));
+    }
+
+    @Test
+    void enableHotMode_RejectsInvalidShardCount() {
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> productService.enableHotMode(1L, 1));
+        assertThrows(ValidationException.class, () -> productService.enableHotMode(1L, StockShardService.MAX_SHARDS + 1));
+        verifyNoInteractions(stockShards);
     }
 
     @Test
@@ -221,8 +464,7 @@ class ProductServiceImplTest {
         StockUpdateBatchDTO.StockUpdateItem item1 = new StockUpdateBatchDTO.StockUpdateItem(1L, 10);
         StockUpdateBatchDTO batchDTO = new StockUpdateBatchDTO(List.of(item1));
 
-        when(productRepository.findProductByIdIn(List.of(1L))).thenReturn(List.of(testProduct));
-        when(productRepository.saveAll(anyList())).thenReturn(List.of(testProduct));
+        when(productRepository.decrementStocks(new TreeMap<>(Map.of(1L, 10)))).thenReturn(new int[]{1});
 
         // Act
         ResponseEntity<Void> response = productService.batchDecreaseStock(batchDTO);
@@ -230,7 +472,24 @@ class ProductServiceImplTest {
         // Assert
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(90, testProduct.getStock());
+        verify(productRepository, never()).findProductByIdIn(anyList());
+    }
+
+    @Test
+    void batchDecreaseStock_CoalescesRepeatedProducts() {
+        // Arrange
+        StockUpdateBatchDTO batchDTO = new StockUpdateBatchDTO(List.of(
+                new StockUpdateBatchDTO.StockUpdateItem(2L, 3),
+                new StockUpdateBatchDTO.StockUpdateItem(1L, 10),
+                new StockUpdateBatchDTO.StockUpdateItem(2L, 4)));
+
+        when(productRepository.decrementStocks(any())).thenReturn(new int[]{1, 1});
+
+        // Act
+        productService.batchDecreaseStock(batchDTO);
+
+        // Assert
+        verify(productRepository).decrementStocks(new TreeMap<>(Map.of(1L, 10, 2L, 7)));
     }
 
     @Test
@@ -239,10 +498,12 @@ class ProductServiceImplTest {
         StockUpdateBatchDTO.StockUpdateItem item1 = new StockUpdateBatchDTO.StockUpdateItem(99L, 10);
         StockUpdateBatchDTO batchDTO = new StockUpdateBatchDTO(List.of(item1));
 
+        when(productRepository.decrementStocks(any())).thenReturn(new int[]{0});
         when(productRepository.findProductByIdIn(List.of(99L))).thenReturn(List.of());
 
         // Act & Assert
-        assertThrows(ServiceException.class, () -> productService.batchDecreaseStock(batchDTO));
+        ServiceException e = assertThrows(ServiceException.class, () -> productService.batchDecreaseStock(batchDTO));
+        assertTrue(e.getMessage().contains("Product not found for ID: 99"));
     }
 
     @Test
@@ -251,9 +512,139 @@ class ProductServiceImplTest {
         StockUpdateBatchDTO.StockUpdateItem item1 = new StockUpdateBatchDTO.StockUpdateItem(1L, 101);
         StockUpdateBatchDTO batchDTO = new StockUpdateBatchDTO(List.of(item1));
 
+        when(productRepository.decrementStocks(any())).thenReturn(new int[]{0});
         when(productRepository.findProductByIdIn(List.of(1L))).thenReturn(List.of(testProduct));
 
         // Act & Assert
-        assertThrows(ServiceException.class, () -> productService.batchDecreaseStock(batchDTO));
+        ServiceException e = assertThrows(ServiceException.class, () -> productService.batchDecreaseStock(batchDTO));
+        assertTrue(e.getMessage().contains("available 100, requested 101"));
+    }
+
+    @Test
+    void batchDecreaseStock_RejectsNonPositiveQuantity() {
+        // Arrange
+        StockUpdateBatchDTO batchDTO = new StockUpdateBatchDTO(List.of(new StockUpdateBatchDTO.StockUpdateItem(1L, -5)));
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> productService.batchDecreaseStock(batchDTO));
+        verify(productRepository, never()).decrementStocks(any());
+    }
+
+    @Test
+    void batchDecreaseStock_RejectsTotalThatOverflows() {
+        // Arrange
+        StockUpdateBatchDTO batchDTO = new StockUpdateBatchDTO(List.of(
+                new StockUpdateBatchDTO.StockUpdateItem(1L, 2_000_000_000),
+                new StockUpdateBatchDTO.StockUpdateItem(1L, 2_000_000_000)));
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> productService.batchDecreaseStock(batchDTO));
+        verify(productRepository, never()).decrementStocks(any());
+    }
+
+    @Test
+    void batchDecreaseStock_RejectsMissingItems() {
+        // Arrange
+        StockUpdateBatchDTO noItems = new StockUpdateBatchDTO(null);
+        StockUpdateBatchDTO emptyItems = new StockUpdateBatchDTO(List.of());
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> productService.batchDecreaseStock(noItems));
+        assertThrows(ValidationException.class, () -> productService.batchDecreaseStock(emptyItems));
+        verify(productRepository, never()).decrementStocks(any());
+    }
+
+    @Test
+    void batchDecreaseStock_RejectsItemWithoutProductId() {
+        // Arrange
+        StockUpdateBatchDTO batchDTO = new StockUpdateBatchDTO(List.of(
+                new StockUpdateBatchDTO.StockUpdateItem(1L, 2),
+                new StockUpdateBatchDTO.StockUpdateItem(null, 3)));
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> productService.batchDecreaseStock(batchDTO));
+        verify(productRepository, never()).decrementStocks(any());
+    }
+
+    @Test
+    void batchDecreaseStock_RejectsNullItem() {
+        // Arrange
+        StockUpdateBatchDTO batchDTO = new StockUpdateBatchDTO(
+                Arrays.asList(new StockUpdateBatchDTO.StockUpdateItem(1L, 2), null));
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> productService.batchDecreaseStock(batchDTO));
+        verify(productRepository, never()).decrementStocks(any());
+    }
+
+    @Test
+    void batchIncreaseStock_CoalescesRepeatedProducts() {
+        // Arrange
+        StockUpdateBatchDTO batchDTO = new StockUpdateBatchDTO(List.of(
+                new StockUpdateBatchDTO.StockUpdateItem(2L, 3),
+                new StockUpdateBatchDTO.StockUpdateItem(1L, 10),
+                new StockUpdateBatchDTO.StockUpdateItem(2L, 4)));
+
+        when(productRepository.incrementStocks(any())).thenReturn(new int[]{1, 1});
+
+        // Act
+        ResponseEntity<Void> response = productService.batchIncreaseStock(batchDTO);
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        verify(productRepository).incrementStocks(new TreeMap<>(Map.of(1L, 10, 2L, 7)));
+        verify(productRepository, never()).findStockShardsById(any());
+    }
+
+    @Test
+    void batchIncreaseStock_HotProductAddsToShard() {
+        // Arrange
+        StockUpdateBatchDTO batchDTO = new StockUpdateBatchDTO(List.of(
+                new StockUpdateBatchDTO.StockUpdateItem(1L, 10),
+                new StockUpdateBatchDTO.StockUpdateItem(2L, 5)));
+
+        when(productRepository.incrementStocks(any())).thenReturn(new int[]{1, 0});
+        when(productRepository.findStockShardsById(2L)).thenReturn(Optional.of(4));
+
+        // Act
+        productService.batchIncreaseStock(batchDTO);
+
+        // Assert
+        verify(stockShards).increment(2L, 4, 5);
+    }
+
+    @Test
+    void batchIncreaseStock_ProductNotFound() {
+        // Arrange
+        StockUpdateBatchDTO batchDTO = new StockUpdateBatchDTO(List.of(new StockUpdateBatchDTO.StockUpdateItem(99L, 10)));
+
+        when(productRepository.incrementStocks(any())).thenReturn(new int[]{0});
+        when(productRepository.findStockShardsById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        ServiceException e = assertThrows(ServiceException.class, () -> productService.batchIncreaseStock(batchDTO));
+        assertTrue(e.getMessage().contains("Product not found for ID: 99"));
+    }
+
+    @Test
+    void batchIncreaseStock_RejectsMissingItemsAndProductIds() {
+        // Arrange
+        StockUpdateBatchDTO emptyItems = new StockUpdateBatchDTO(List.of());
+        StockUpdateBatchDTO noProductId = new StockUpdateBatchDTO(List.of(new StockUpdateBatchDTO.StockUpdateItem(null, 3)));
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> productService.batchIncreaseStock(emptyItems));
+        assertThrows(ValidationException.class, () -> productService.batchIncreaseStock(noProductId));
+        verify(productRepository, never()).incrementStocks(any());
+    }
+
+    @Test
+    void batchIncreaseStock_RejectsNonPositiveQuantity() {
+        // Arrange
+        StockUpdateBatchDTO batchDTO = new StockUpdateBatchDTO(List.of(new StockUpdateBatchDTO.StockUpdateItem(1L, 0)));
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> productService.batchIncreaseStock(batchDTO));
+        verify(productRepository, never()).incrementStocks(any());
     }
-}
\ No newline at end of file
+}